@@ -16,6 +16,20 @@ android {
         versionName = "1.0"
 
         testInstrumentationRunner = "androidx.test.runner.AndroidJUnitRunner"
+
+        buildConfigField("String", "QR_PARSER_ENGINE", "\"SINGLE_PASS\"")
+        // LOCAL_ONLY, LOCAL_THEN_REMOTE_ASYNC o REMOTE_REQUIRED (ver QrValidator.Mode).
+        buildConfigField("String", "QR_VALIDATION_MODE", "\"LOCAL_THEN_REMOTE_ASYNC\"")
+        // Validación por lotes contra /api/v1/validar/lote; 1 la desactiva (un escaneo por
+        // petición). Solo para flotas cuyo servidor ya expone la variante por lotes.
+        buildConfigField("int", "QR_VALIDATION_BATCH_MAX_ITEMS", "1")
+        buildConfigField("long", "QR_VALIDATION_BATCH_WINDOW_MILLIS", "100L")
+
+        // Umbrales de la política de sincronización; se ajustan por flota.
+        buildConfigField("int", "SYNC_MAX_PENDING_ITEMS", "20")
+        buildConfigField("int", "SYNC_METERED_MAX_PENDING_ITEMS", "50")
+        buildConfigField("long", "SYNC_MAX_PENDING_BYTES", "65536L")
+        buildConfigField("long", "SYNC_MAX_STALENESS_MINUTES", "15L")
     }
 
     buildTypes {
@@ -41,10 +55,13 @@ android {
 
     buildFeatures {
         viewBinding = true
+        buildConfig = true
     }
 }
 
 dependencies {
+    implementation(project(":core"))
+
     // UI Components
     implementation(libs.appcompat)
     implementation(libs.material)
@@ -69,8 +86,17 @@ dependencies {
     // Room
     implementation(libs.room.runtime)
     implementation(libs.room.rxjava3)
+    implementation(libs.room.paging)
     annotationProcessor(libs.room.compiler)
 
+    // Paging
+    implementation(libs.paging.runtime)
+    implementation(libs.paging.rxjava3)
+
+    // WorkManager
+    implementation(libs.work.runtime)
+    implementation(libs.work.rxjava3)
+
     // Volley
     implementation(libs.volley)
 
@@ -90,6 +116,12 @@ dependencies {
     testImplementation(libs.junit)
     testImplementation(libs.mockito.core)
     testImplementation(libs.arch.testing)
+    // Room en memoria (Robolectric) para el test de la caché de validación.
+    testImplementation(libs.robolectric)
+    testImplementation(libs.test.core)
+    testImplementation(libs.mockwebserver)
+    // El org.json de android.jar es un stub en los tests locales.
+    testImplementation(libs.json)
     androidTestImplementation(libs.ext.junit)
     androidTestImplementation(libs.espresso.core)
 }
\ No newline at end of file
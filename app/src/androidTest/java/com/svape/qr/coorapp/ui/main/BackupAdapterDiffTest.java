@@ -0,0 +1,209 @@
+package com.svape.qr.coorapp.ui.main;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import android.content.Context;
+import android.view.ContextThemeWrapper;
+import android.view.View;
+import androidx.annotation.NonNull;
+import androidx.lifecycle.Lifecycle;
+import androidx.lifecycle.LifecycleOwner;
+import androidx.lifecycle.LifecycleRegistry;
+import androidx.paging.PagingData;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+import com.svape.qr.coorapp.R;
+import com.svape.qr.coorapp.model.BackupItem;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import kotlin.Unit;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+/**
+ * Mide cuántos binds y notificaciones produce insertar un elemento en una lista de 5.000.
+ */
+@RunWith(AndroidJUnit4.class)
+public class BackupAdapterDiffTest {
+
+    private static final int LIST_SIZE = 5_000;
+
+    private CountingAdapter adapter;
+    private RecyclerView recyclerView;
+    private RecordingObserver observer;
+    private TestLifecycleOwner lifecycleOwner;
+
+    @Before
+    public void setUp() {
+        runOnMain(() -> {
+            Context context = new ContextThemeWrapper(
+                    InstrumentationRegistry.getInstrumentation().getTargetContext(),
+                    R.style.Theme_CoorApp_Light);
+            lifecycleOwner = new TestLifecycleOwner();
+            adapter = new CountingAdapter();
+            recyclerView = new RecyclerView(context);
+            recyclerView.setLayoutManager(new LinearLayoutManager(context));
+            recyclerView.setAdapter(adapter);
+            observer = new RecordingObserver();
+            adapter.registerAdapterDataObserver(observer);
+        });
+    }
+
+    @Test
+    public void insertAtEnd_notifiesSingleInsert_withoutRebinding() throws Exception {
+        List<BackupItem> items = items(LIST_SIZE);
+        submitAndLayout(items);
+        int bindsAfterInitialLoad = adapter.bindCount;
+        assertTrue(bindsAfterInitialLoad > 0);
+        observer.reset();
+
+        List<BackupItem> updated = new ArrayList<>(items);
+        updated.add(item(LIST_SIZE + 1));
+        submitAndLayout(updated);
+
+        assertEquals(1, observer.inserted);
+        assertEquals(0, observer.changed);
+        assertEquals(0, observer.removed);
+        assertEquals(0, observer.datasetChanged);
+        // El nuevo elemento queda fuera de pantalla: ninguna fila visible se vuelve a enlazar.
+        assertEquals(bindsAfterInitialLoad, adapter.bindCount);
+    }
+
+    @Test
+    public void insertAtTop_bindsAtMostTheNewRow() throws Exception {
+        List<BackupItem> items = items(LIST_SIZE);
+        submitAndLayout(items);
+        int bindsAfterInitialLoad = adapter.bindCount;
+        observer.reset();
+
+        List<BackupItem> updated = new ArrayList<>(LIST_SIZE + 1);
+        updated.add(item(LIST_SIZE + 1));
+        updated.addAll(items);
+        submitAndLayout(updated);
+
+        assertEquals(1, observer.inserted);
+        assertEquals(0, observer.changed);
+        assertEquals(0, observer.datasetChanged);
+        // A lo sumo la fila nueva; las existentes solo se desplazan.
+        assertTrue(adapter.bindCount <= bindsAfterInitialLoad + 1);
+    }
+
+    @Test
+    public void reloadWithSameRows_bindsNothing() throws Exception {
+        submitAndLayout(items(LIST_SIZE));
+        int bindsAfterInitialLoad = adapter.bindCount;
+        observer.reset();
+
+        // Instancias nuevas con la misma clave primaria y contenido, como tras una invalidación de Room.
+        submitAndLayout(items(LIST_SIZE));
+
+        assertEquals(0, observer.inserted);
+        assertEquals(0, observer.changed);
+        assertEquals(0, observer.datasetChanged);
+        assertEquals(bindsAfterInitialLoad, adapter.bindCount);
+    }
+
+    private void submitAndLayout(List<BackupItem> items) throws InterruptedException {
+        CountDownLatch pagesUpdated = new CountDownLatch(1);
+        runOnMain(() -> {
+            adapter.addOnPagesUpdatedListener(() -> {
+                pagesUpdated.countDown();
+                return Unit.INSTANCE;
+            });
+            adapter.submitData(lifecycleOwner.getLifecycle(), PagingData.from(items));
+        });
+        assertTrue("El diff no terminó a tiempo", pagesUpdated.await(10, TimeUnit.SECONDS));
+        runOnMain(() -> {
+            recyclerView.measure(
+                    View.MeasureSpec.makeMeasureSpec(1080, View.MeasureSpec.EXACTLY),
+                    View.MeasureSpec.makeMeasureSpec(1920, View.MeasureSpec.EXACTLY));
+            recyclerView.layout(0, 0, 1080, 1920);
+        });
+    }
+
+    private static List<BackupItem> items(int count) {
+        List<BackupItem> items = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            items.add(item(i));
+        }
+        return items;
+    }
+
+    private static BackupItem item(int id) {
+        BackupItem item = new BackupItem("TAG" + id, 4.6, -74.08, "Observacion " + id);
+        item.setId(id);
+        return item;
+    }
+
+    private static void runOnMain(Runnable runnable) {
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(runnable);
+    }
+
+    private static class CountingAdapter extends BackupAdapter {
+        int bindCount;
+
+        CountingAdapter() {
+            super(item -> { }, item -> { });
+        }
+
+        @Override
+        public void onBindViewHolder(@NonNull BackupViewHolder holder, int position) {
+            bindCount++;
+            super.onBindViewHolder(holder, position);
+        }
+    }
+
+    private static class RecordingObserver extends RecyclerView.AdapterDataObserver {
+        int inserted;
+        int changed;
+        int removed;
+        int datasetChanged;
+
+        void reset() {
+            inserted = 0;
+            changed = 0;
+            removed = 0;
+            datasetChanged = 0;
+        }
+
+        @Override
+        public void onChanged() {
+            datasetChanged++;
+        }
+
+        @Override
+        public void onItemRangeInserted(int positionStart, int itemCount) {
+            inserted += itemCount;
+        }
+
+        @Override
+        public void onItemRangeChanged(int positionStart, int itemCount) {
+            changed += itemCount;
+        }
+
+        @Override
+        public void onItemRangeRemoved(int positionStart, int itemCount) {
+            removed += itemCount;
+        }
+    }
+
+    private static class TestLifecycleOwner implements LifecycleOwner {
+        private final LifecycleRegistry registry = new LifecycleRegistry(this);
+
+        TestLifecycleOwner() {
+            registry.setCurrentState(Lifecycle.State.RESUMED);
+        }
+
+        @NonNull
+        @Override
+        public Lifecycle getLifecycle() {
+            return registry;
+        }
+    }
+}
@@ -1,16 +1,24 @@
 package com.svape.qr.coorapp;
 
 import android.app.Application;
+import androidx.annotation.NonNull;
+import androidx.work.Configuration;
 import com.svape.qr.coorapp.di.AppComponent;
 import com.svape.qr.coorapp.di.DaggerAppComponent;
+import com.svape.qr.coorapp.util.AndroidLogger;
+import com.svape.qr.coorapp.util.DataParser;
+import com.svape.qr.coorapp.util.Logs;
 
-public class App extends Application {
+public class App extends Application implements Configuration.Provider {
     private AppComponent appComponent;
 
     @Override
     public void onCreate() {
         super.onCreate();
 
+        Logs.install(new AndroidLogger());
+        DataParser.setEngine(DataParser.Engine.valueOf(BuildConfig.QR_PARSER_ENGINE));
+
         appComponent = DaggerAppComponent.builder()
                 .application(this)
                 .build();
@@ -19,4 +27,14 @@ public class App extends Application {
     public AppComponent getAppComponent() {
         return appComponent;
     }
+
+    // WorkManager se inicializa bajo demanda (ver AndroidManifest) para que los workers
+    // reciban sus dependencias de Dagger.
+    @NonNull
+    @Override
+    public Configuration getWorkManagerConfiguration() {
+        return new Configuration.Builder()
+                .setWorkerFactory(appComponent.workerFactory())
+                .build();
+    }
 }
\ No newline at end of file
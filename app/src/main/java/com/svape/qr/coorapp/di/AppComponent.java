@@ -10,6 +10,7 @@ import com.svape.qr.coorapp.ui.main.MainActivity;
 import com.svape.qr.coorapp.ui.map.MapActivity;
 import com.svape.qr.coorapp.ui.register.RegisterActivity;
 import com.svape.qr.coorapp.ui.splash.SplashActivity;
+import com.svape.qr.coorapp.work.SyncWorkerFactory;
 import javax.inject.Singleton;
 import dagger.BindsInstance;
 import dagger.Component;
@@ -28,6 +29,8 @@ public interface AppComponent {
     void inject(MapActivity mapActivity);
     void inject(SplashActivity splashActivity);
 
+    SyncWorkerFactory workerFactory();
+
     @Component.Builder
     interface Builder {
         @BindsInstance
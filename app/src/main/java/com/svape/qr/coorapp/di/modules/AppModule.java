@@ -2,12 +2,15 @@ package com.svape.qr.coorapp.di.modules;
 
 import android.app.Application;
 import android.content.Context;
-import androidx.room.Room;
-import androidx.room.migration.Migration;
-import androidx.sqlite.db.SupportSQLiteDatabase;
-import com.svape.qr.coorapp.repository.local.AppDatabase;
+import com.svape.qr.coorapp.BuildConfig;
+import com.svape.qr.coorapp.repository.SyncCoordinator;
+import com.svape.qr.coorapp.repository.local.UserDatabaseManager;
+import com.svape.qr.coorapp.sync.PendingChangeTracker;
+import com.svape.qr.coorapp.sync.SyncPolicy;
 import com.svape.qr.coorapp.util.DeviceInfoHelper;
 import com.svape.qr.coorapp.util.SessionManager;
+import com.svape.qr.coorapp.work.SyncScheduler;
+import java.util.concurrent.TimeUnit;
 import javax.inject.Singleton;
 import dagger.Module;
 import dagger.Provides;
@@ -23,19 +26,8 @@ public class AppModule {
 
     @Provides
     @Singleton
-    AppDatabase provideDatabase(Context context) {
-        Migration MIGRATION_1_2 = new Migration(1, 2) {
-            @Override
-            public void migrate(SupportSQLiteDatabase database) {
-                database.execSQL("ALTER TABLE backup_local ADD COLUMN username TEXT");
-
-                database.execSQL("UPDATE backup_local SET username = 'legacy_user' WHERE username IS NULL");
-            }
-        };
-
-        return Room.databaseBuilder(context, AppDatabase.class, "app_database")
-                .addMigrations(MIGRATION_1_2)
-                .build();
+    UserDatabaseManager provideUserDatabaseManager(Context context) {
+        return new UserDatabaseManager(context);
     }
 
     @Provides
@@ -49,4 +41,26 @@ public class AppModule {
     SessionManager provideSessionManager(Context context) {
         return new SessionManager(context);
     }
+
+    @Provides
+    @Singleton
+    SyncPolicy provideSyncPolicy() {
+        return new SyncPolicy(BuildConfig.SYNC_MAX_PENDING_ITEMS,
+                BuildConfig.SYNC_METERED_MAX_PENDING_ITEMS,
+                BuildConfig.SYNC_MAX_PENDING_BYTES,
+                TimeUnit.MINUTES.toMillis(BuildConfig.SYNC_MAX_STALENESS_MINUTES));
+    }
+
+    @Provides
+    @Singleton
+    PendingChangeTracker providePendingChangeTracker(SyncPolicy policy) {
+        return new PendingChangeTracker(policy, System::currentTimeMillis);
+    }
+
+    @Provides
+    @Singleton
+    SyncScheduler provideSyncScheduler(Context context, PendingChangeTracker pendingChanges,
+                                       SyncCoordinator syncCoordinator) {
+        return new SyncScheduler(context, pendingChanges, syncCoordinator);
+    }
 }
\ No newline at end of file
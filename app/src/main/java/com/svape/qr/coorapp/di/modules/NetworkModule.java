@@ -3,10 +3,14 @@ package com.svape.qr.coorapp.di.modules;
 import android.content.Context;
 import com.android.volley.RequestQueue;
 import com.android.volley.toolbox.Volley;
+import com.svape.qr.coorapp.BuildConfig;
 import com.svape.qr.coorapp.service.ApiService;
+import com.svape.qr.coorapp.service.BatchingValidationClient;
+import com.svape.qr.coorapp.service.VolleyValidationTransport;
 import javax.inject.Singleton;
 import dagger.Module;
 import dagger.Provides;
+import io.reactivex.rxjava3.schedulers.Schedulers;
 
 @Module
 public class NetworkModule {
@@ -20,6 +24,13 @@ public class NetworkModule {
     @Provides
     @Singleton
     ApiService provideApiService(RequestQueue requestQueue) {
-        return new ApiService(requestQueue);
+        if (BuildConfig.QR_VALIDATION_BATCH_MAX_ITEMS <= 1) {
+            return new ApiService(requestQueue);
+        }
+        BatchingValidationClient batchClient = new BatchingValidationClient(
+                new VolleyValidationTransport(requestQueue), ApiService.BATCH_ENDPOINT,
+                BuildConfig.QR_VALIDATION_BATCH_MAX_ITEMS, BuildConfig.QR_VALIDATION_BATCH_WINDOW_MILLIS,
+                Schedulers.computation());
+        return new ApiService(requestQueue, batchClient);
     }
 }
\ No newline at end of file
@@ -1,10 +1,19 @@
 package com.svape.qr.coorapp.di.modules;
 
 import com.google.firebase.firestore.FirebaseFirestore;
+import com.svape.qr.coorapp.BuildConfig;
+import com.svape.qr.coorapp.backend.SyncBackend;
+import com.svape.qr.coorapp.backend.UserStore;
 import com.svape.qr.coorapp.repository.BackupRepository;
+import com.svape.qr.coorapp.repository.SyncCoordinator;
 import com.svape.qr.coorapp.repository.UserRepository;
-import com.svape.qr.coorapp.repository.local.AppDatabase;
+import com.svape.qr.coorapp.repository.ValidationCache;
+import com.svape.qr.coorapp.repository.local.UserDatabaseManager;
+import com.svape.qr.coorapp.repository.remote.FirestoreSyncBackend;
+import com.svape.qr.coorapp.repository.remote.FirestoreUserStore;
 import com.svape.qr.coorapp.service.ApiService;
+import com.svape.qr.coorapp.util.DeviceInfoHelper;
+import com.svape.qr.coorapp.util.QrValidator;
 import javax.inject.Singleton;
 import dagger.Module;
 import dagger.Provides;
@@ -18,18 +27,47 @@ public class RepositoryModule {
         return FirebaseFirestore.getInstance();
     }
 
+    // Los backends remotos se inyectan por interfaz; los tests de carga usan los dobles en
+    // memoria de core (testFixtures).
     @Provides
     @Singleton
-    UserRepository provideUserRepository(FirebaseFirestore firebaseFirestore) {
-        return new UserRepository(firebaseFirestore);
+    SyncBackend provideSyncBackend(FirebaseFirestore firebaseFirestore) {
+        return new FirestoreSyncBackend(firebaseFirestore);
+    }
+
+    @Provides
+    @Singleton
+    UserStore provideUserStore(FirebaseFirestore firebaseFirestore) {
+        return new FirestoreUserStore(firebaseFirestore);
+    }
+
+    @Provides
+    @Singleton
+    UserRepository provideUserRepository(UserStore userStore) {
+        return new UserRepository(userStore);
+    }
+
+    @Provides
+    @Singleton
+    ValidationCache provideValidationCache(UserDatabaseManager databaseManager) {
+        return new ValidationCache(databaseManager, System::currentTimeMillis);
     }
 
     @Provides
     @Singleton
     BackupRepository provideBackupRepository(
-            AppDatabase database,
-            FirebaseFirestore firebaseFirestore,
-            ApiService apiService) {
-        return new BackupRepository(database, firebaseFirestore, apiService);
+            UserDatabaseManager databaseManager,
+            SyncBackend syncBackend,
+            ApiService apiService,
+            DeviceInfoHelper deviceInfoHelper,
+            ValidationCache validationCache) {
+        return new BackupRepository(databaseManager, syncBackend, apiService, deviceInfoHelper.getDeviceId(),
+                QrValidator.Mode.valueOf(BuildConfig.QR_VALIDATION_MODE), validationCache);
+    }
+
+    @Provides
+    @Singleton
+    SyncCoordinator provideSyncCoordinator(BackupRepository backupRepository, DeviceInfoHelper deviceInfoHelper) {
+        return new SyncCoordinator(backupRepository, deviceInfoHelper.getDeviceId());
     }
-}
\ No newline at end of file
+}
@@ -1,267 +1,361 @@
 package com.svape.qr.coorapp.repository;
 
 import android.util.Log;
-import com.google.firebase.firestore.FirebaseFirestore;
-import com.google.firebase.firestore.SetOptions;
-import com.svape.qr.coorapp.model.BackupItem;
+import androidx.paging.Pager;
+import androidx.paging.PagingConfig;
+import androidx.paging.PagingData;
+import androidx.paging.PagingDataTransforms;
+import androidx.paging.rxjava3.PagingRx;
+import com.svape.qr.coorapp.backend.BackendException;
+import com.svape.qr.coorapp.backend.SyncBackend;
 import com.svape.qr.coorapp.model.ApiResponse;
+import com.svape.qr.coorapp.model.BackupItem;
 import com.svape.qr.coorapp.repository.local.AppDatabase;
 import com.svape.qr.coorapp.repository.local.BackupItemEntity;
+import com.svape.qr.coorapp.repository.local.RoomLocalStore;
+import com.svape.qr.coorapp.repository.local.ScanOutboxDao;
+import com.svape.qr.coorapp.repository.local.ScanOutboxEntity;
+import com.svape.qr.coorapp.repository.local.UserDatabaseManager;
 import com.svape.qr.coorapp.service.ApiService;
+import com.svape.qr.coorapp.service.ValidationCoalescer;
+import com.svape.qr.coorapp.sync.MonotonicClock;
+import com.svape.qr.coorapp.sync.SyncEngine;
+import com.svape.qr.coorapp.util.DataParser;
+import com.svape.qr.coorapp.util.QrValidator;
 import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.HashSet;
+import java.util.Collections;
 import java.util.List;
-import java.util.Map;
-import java.util.Set;
 import io.reactivex.rxjava3.core.Completable;
+import io.reactivex.rxjava3.core.Flowable;
+import io.reactivex.rxjava3.core.Maybe;
+import io.reactivex.rxjava3.core.Observable;
 import io.reactivex.rxjava3.core.Single;
+import io.reactivex.rxjava3.schedulers.Schedulers;
 
 public class BackupRepository {
     private static final String TAG = "BackupRepository";
-    private final AppDatabase database;
-    private final FirebaseFirestore firestore;
-    private final ApiService apiService;
-
-    public BackupRepository(AppDatabase database, FirebaseFirestore firestore, ApiService apiService) {
-        this.database = database;
-        this.firestore = firestore;
-        this.apiService = apiService;
+    // Escaneos de la bandeja que se validan y se guardan por transacción.
+    public static final int OUTBOX_BATCH_SIZE = 50;
+    // Validaciones simultáneas contra el servicio al vaciar la bandeja.
+    static final int OUTBOX_VALIDATION_CONCURRENCY = 4;
+    // Fallos del servidor (no de red) tras los que un escaneo se da por rechazado.
+    static final int OUTBOX_MAX_ATTEMPTS = 5;
+    private final UserDatabaseManager databaseManager;
+    private final ValidationCoalescer validations;
+    private final int validationConcurrency;
+    private final String deviceId;
+    private final QrValidator.Mode validationMode;
+    private final ValidationCache validationCache;
+    private final MonotonicClock clock = new MonotonicClock(System::currentTimeMillis);
+    private final SyncEngine syncEngine;
+
+    public BackupRepository(UserDatabaseManager databaseManager, SyncBackend syncBackend,
+                            ApiService apiService, String deviceId, QrValidator.Mode validationMode,
+                            ValidationCache validationCache) {
+        this.databaseManager = databaseManager;
+        this.validations = new ValidationCoalescer(apiService);
+        // Por lotes, todo el lote de la bandeja sale junto y el cliente arma las peticiones.
+        this.validationConcurrency = apiService.isBatching() ? OUTBOX_BATCH_SIZE : OUTBOX_VALIDATION_CONCURRENCY;
+        this.deviceId = deviceId;
+        this.validationMode = validationMode;
+        this.validationCache = validationCache;
+        this.syncEngine = new SyncEngine(syncBackend, new RoomLocalStore(databaseManager), clock,
+                System::currentTimeMillis);
     }
 
-    public Single<ApiResponse> validateQrData(String base64Data) {
-        return apiService.validateData(base64Data);
+    // Cambiar de usuario solo cambia el archivo abierto; los datos del anterior se conservan.
+    public Completable switchUser(String username) {
+        return Completable.fromAction(() -> databaseManager.open(username));
     }
 
+    // Abrir la base puede tocar archivos: los métodos públicos la resuelven dentro de defer, en io.
+    private AppDatabase database(String username) {
+        return databaseManager.open(username);
+    }
+
+    // Un payload ya validado en las últimas 24 h no vuelve al servicio, y varios pedidos
+    // simultáneos del mismo payload (doble toque, lector continuo) comparten una petición.
+    public Single<ApiResponse> validateQrData(String base64Data, String username) {
+        return Maybe.fromCallable(() -> validationCache.get(username, base64Data))
+                .subscribeOn(Schedulers.io())
+                .switchIfEmpty(validations.validate(base64Data)
+                        .observeOn(Schedulers.io())
+                        .doOnSuccess(response -> validationCache.put(username, base64Data, response)));
+    }
+
+    // Escaneo local: queda pendiente de subir en la próxima sincronización.
     public Completable saveBackupItem(BackupItem item, String username) {
-        BackupItemEntity entity = new BackupItemEntity(
-                item.getEtiqueta1d(),
-                item.getLatitud(),
-                item.getLongitud(),
-                item.getObservacion(),
-                username
-        );
-        return database.backupDao().insert(entity);
+        return Completable.defer(() -> database(username).backupDao().upsert(toDirtyEntity(item, username)))
+                .subscribeOn(Schedulers.io());
+    }
+
+    /**
+     * Captura un escaneo sin esperar a la red. Salvo en REMOTE_REQUIRED se valida en el
+     * dispositivo y, si es válido, se guarda al instante; un payload inválido falla con
+     * IllegalArgumentException. Cuando el servicio remoto debe validarlo o confirmarlo, el
+     * payload queda además en la bandeja.
+     */
+    public Single<ScanCapture> captureScan(String payload, String username) {
+        if (validationMode == QrValidator.Mode.REMOTE_REQUIRED) {
+            return enqueueScan(payload, username, false)
+                    .andThen(Single.just(new ScanCapture(null, true)));
+        }
+
+        return Single.defer(() -> {
+            QrValidator.Result result = QrValidator.validate(payload);
+            if (!result.isValid()) {
+                return Single.error(new IllegalArgumentException(result.getError()));
+            }
+
+            BackupItem item = DataParser.parseData(result.getData());
+            boolean confirm = validationMode == QrValidator.Mode.LOCAL_THEN_REMOTE_ASYNC;
+            Completable save = saveBackupItem(item, username);
+            if (confirm) {
+                save = save.andThen(enqueueScan(payload, username, true));
+            }
+            return save.andThen(Single.just(new ScanCapture(item, confirm)));
+        });
     }
 
-    public Completable saveBackupItem(BackupItem item) {
-        return saveBackupItem(item, "");
+    private Completable enqueueScan(String payload, String username, boolean savedLocally) {
+        return Completable.defer(() -> database(username).scanOutboxDao()
+                        .insert(new ScanOutboxEntity(username, payload, System.currentTimeMillis(), savedLocally)))
+                .subscribeOn(Schedulers.io());
     }
 
-    public Single<List<BackupItem>> getAllBackupItems() {
-        return database.backupDao().getAll()
-                .map(entities -> {
-                    List<BackupItem> items = new ArrayList<>();
-                    for (BackupItemEntity entity : entities) {
-                        items.add(new BackupItem(
-                                entity.getEtiqueta1d(),
-                                entity.getLatitud(),
-                                entity.getLongitud(),
-                                entity.getObservacion()
-                        ));
-                    }
-                    return items;
-                });
+    /**
+     * Valida los escaneos de la bandeja por lotes y guarda los aceptados como pendientes de
+     * subir, en la misma transacción que los quita de la bandeja. Sin red se detiene con error
+     * y los escaneos quedan para el siguiente intento.
+     */
+    public Single<OutboxDrainResult> drainOutbox(String username) {
+        return Single.fromCallable(() -> database(username))
+                .subscribeOn(Schedulers.io())
+                .flatMap(database -> drainOutboxBatch(database, username,
+                        new OutboxDrainResult(Collections.emptyList(), 0, 0)))
+                .doOnSuccess(result -> Log.d(TAG, "Caché de validación: " + validationCache.getStats()))
+                .doOnError(e -> Log.e(TAG, "Error vaciando la bandeja de escaneos", e));
     }
 
-    public Single<List<BackupItem>> getAllBackupItemsForUser(String username) {
-        return database.backupDao().getAllForUser(username)
-                .map(entities -> {
-                    List<BackupItem> items = new ArrayList<>();
-                    for (BackupItemEntity entity : entities) {
-                        items.add(new BackupItem(
-                                entity.getEtiqueta1d(),
-                                entity.getLatitud(),
-                                entity.getLongitud(),
-                                entity.getObservacion()
-                        ));
+    private Single<OutboxDrainResult> drainOutboxBatch(AppDatabase database, String username,
+                                                       OutboxDrainResult total) {
+        return Single.fromCallable(() -> database.scanOutboxDao().getPending(username, OUTBOX_BATCH_SIZE))
+                .flatMap(batch -> {
+                    if (batch.isEmpty()) {
+                        return Single.just(total);
                     }
-                    return items;
+                    // concatMapEager valida en paralelo pero conserva el orden de captura.
+                    return Observable.fromIterable(batch)
+                            .concatMapEager(scan -> validateScan(scan).toObservable(),
+                                    validationConcurrency, 1)
+                            .toList()
+                            // Volley responde en el hilo principal; Room no admite escrituras ahí.
+                            .observeOn(Schedulers.io())
+                            .map(validated -> database.runInTransaction(
+                                    () -> applyValidatedScans(database, username, validated)))
+                            .flatMap(result -> {
+                                OutboxDrainResult sum = total.plus(result);
+                                // Los que fallaron esperan al backoff en lugar de repetirse ahora.
+                                return batch.size() == OUTBOX_BATCH_SIZE && result.getFailed() == 0
+                                        ? drainOutboxBatch(database, username, sum)
+                                        : Single.just(sum);
+                            });
                 });
     }
 
-    public Single<Integer> getBackupCount() {
-        return database.backupDao().getCount();
+    // Los errores de conectividad cortan el lote; cualquier otro fallo queda en el escaneo.
+    private Single<ValidatedScan> validateScan(ScanOutboxEntity scan) {
+        return validateQrData(scan.getPayload(), scan.getUsername())
+                .map(response -> new ValidatedScan(scan, response, null))
+                .onErrorResumeNext(error -> ApiService.isConnectivityError(error)
+                        ? Single.error(error)
+                        : Single.just(new ValidatedScan(scan, null, error)));
     }
 
-    public Completable syncWithFirebase(List<BackupItem> items, String username, String date, String deviceId) {
-        return Completable.create(emitter -> {
-            if (items.isEmpty()) {
-                Log.d(TAG, "No hay elementos para sincronizar con Firebase");
-                emitter.onComplete();
-                return;
+    private OutboxDrainResult applyValidatedScans(AppDatabase database, String username,
+                                                  List<ValidatedScan> validated) {
+        ScanOutboxDao outbox = database.scanOutboxDao();
+        List<BackupItemEntity> accepted = new ArrayList<>();
+        List<BackupItem> saved = new ArrayList<>();
+        List<Long> done = new ArrayList<>();
+        int rejected = 0;
+        int failed = 0;
+
+        for (ValidatedScan result : validated) {
+            ScanOutboxEntity scan = result.scan;
+            if (result.error != null) {
+                String message = String.valueOf(result.error.getMessage());
+                if (scan.getAttempts() + 1 >= OUTBOX_MAX_ATTEMPTS && scan.isSavedLocally()) {
+                    // Sin confirmación posible se conserva lo validado en el dispositivo.
+                    done.add(scan.getId());
+                } else if (scan.getAttempts() + 1 >= OUTBOX_MAX_ATTEMPTS) {
+                    outbox.markRejected(scan.getId(), message);
+                    rejected++;
+                } else {
+                    outbox.recordFailure(Collections.singletonList(scan.getId()), message);
+                    failed++;
+                }
+            } else if (!result.response.isCorrect()) {
+                outbox.markRejected(scan.getId(), "Estructura QR incorrecta");
+                if (scan.isSavedLocally()) {
+                    // El servicio manda: lo guardado al validarlo en el dispositivo se borra.
+                    QrValidator.Result local = QrValidator.validate(scan.getPayload());
+                    if (local.isValid()) {
+                        database.backupDao().markDeletedByEtiqueta(username,
+                                DataParser.parseData(local.getData()).getEtiqueta1d(), clock.now(), deviceId);
+                    }
+                }
+                rejected++;
+            } else if (scan.isSavedLocally()) {
+                done.add(scan.getId());
+            } else {
+                try {
+                    BackupItem item = DataParser.parseData(result.response.getData());
+                    accepted.add(toDirtyEntity(item, username));
+                    saved.add(item);
+                    done.add(scan.getId());
+                } catch (RuntimeException e) {
+                    outbox.markRejected(scan.getId(), "Error al parsear: " + e.getMessage());
+                    rejected++;
+                }
             }
+        }
+
+        database.backupDao().replaceAll(accepted);
+        if (!done.isEmpty()) {
+            outbox.delete(done);
+        }
+        Log.d(TAG, "Bandeja de escaneos: " + accepted.size() + " guardados, " + rejected
+                + " rechazados, " + failed + " con error para usuario: " + username);
+        return new OutboxDrainResult(saved, rejected, failed);
+    }
 
-            firestore.collection("backup")
-                    .document(username)
-                    .get()
-                    .addOnSuccessListener(documentSnapshot -> {
-                        List<BackupItem> allItems = new ArrayList<>(items);
-
-                        if (documentSnapshot.exists() && documentSnapshot.contains("items")) {
-                            List<Map<String, Object>> existingItemsMap =
-                                    (List<Map<String, Object>>) documentSnapshot.get("items");
-
-                            if (existingItemsMap != null && !existingItemsMap.isEmpty()) {
-                                Log.d(TAG, "Encontrados " + existingItemsMap.size() +
-                                        " elementos existentes en Firebase");
-
-                                Set<String> existingTags = new HashSet<>();
-
-                                for (BackupItem item : items) {
-                                    existingTags.add(item.getEtiqueta1d());
-                                }
-
-                                for (Map<String, Object> map : existingItemsMap) {
-                                    String etiqueta = (String) map.get("etiqueta1d");
-
-                                    if (etiqueta != null && !existingTags.contains(etiqueta)) {
-                                        double latitud = 0;
-                                        double longitud = 0;
-                                        String observacion = (String) map.get("observacion");
-
-                                         if (map.get("latitud") instanceof Double) {
-                                            latitud = (Double) map.get("latitud");
-                                        } else if (map.get("latitud") instanceof Long) {
-                                            latitud = ((Long) map.get("latitud")).doubleValue();
-                                        } else if (map.get("latitud") instanceof Number) {
-                                            latitud = ((Number) map.get("latitud")).doubleValue();
-                                        }
-
-                                        if (map.get("longitud") instanceof Double) {
-                                            longitud = (Double) map.get("longitud");
-                                        } else if (map.get("longitud") instanceof Long) {
-                                            longitud = ((Long) map.get("longitud")).doubleValue();
-                                        } else if (map.get("longitud") instanceof Number) {
-                                            longitud = ((Number) map.get("longitud")).doubleValue();
-                                        }
-
-                                        BackupItem existingItem = new BackupItem(etiqueta, latitud, longitud, observacion);
-                                        allItems.add(existingItem);
-                                        Log.d(TAG, "Agregado elemento existente con etiqueta: " + etiqueta);
-                                    }
-                                }
-                            }
-                        }
-
-                       Map<String, Object> data = new HashMap<>();
-                        data.put("items", allItems);
-                        data.put("username", username);
-                        data.put("date", date);
-                        data.put("deviceId", deviceId);
-                        data.put("timestamp", System.currentTimeMillis());
-
-                        Log.d(TAG, "Sincronizando total de " + allItems.size() +
-                                " elementos a Firebase para usuario: " + username);
-
-                        firestore.collection("backup")
-                                .document(username)
-                                .set(data, SetOptions.merge())
-                                .addOnSuccessListener(aVoid -> {
-                                    Log.d(TAG, "Datos sincronizados exitosamente a Firebase");
-                                    emitter.onComplete();
-                                })
-                                .addOnFailureListener(e -> {
-                                    Log.e(TAG, "Error sincronizando con Firebase", e);
-                                    emitter.onError(e);
-                                });
-                    })
-                    .addOnFailureListener(e -> {
-                        Log.e(TAG, "Error verificando documento antes de sincronizar", e);
-                        emitter.onError(e);
-                    });
-        });
+    public Completable deleteBackupItem(BackupItem item, String username) {
+        return Completable.defer(() -> database(username).backupDao()
+                        .markDeleted((int) item.getId(), clock.now(), deviceId))
+                .subscribeOn(Schedulers.io());
     }
 
-    public Single<List<BackupItem>> getBackupFromFirebase(String username) {
-        return Single.create(emitter -> {
-            Log.d(TAG, "Intentando recuperar datos desde Firebase para usuario: " + username);
-
-            firestore.collection("backup")
-                    .document(username)
-                    .get()
-                    .addOnSuccessListener(documentSnapshot -> {
-                        if (documentSnapshot.exists() && documentSnapshot.contains("items")) {
-                            try {
-                                List<Map<String, Object>> itemsMap = (List<Map<String, Object>>) documentSnapshot.get("items");
-                                List<BackupItem> items = new ArrayList<>();
-
-                                if (itemsMap != null) {
-                                    Log.d(TAG, "Recuperados " + itemsMap.size() + " elementos de Firebase");
-
-                                    for (Map<String, Object> map : itemsMap) {
-                                        String etiqueta = (String) map.get("etiqueta1d");
-                                        double latitud = 0;
-                                        double longitud = 0;
-                                        String observacion = (String) map.get("observacion");
-
-                                        if (map.get("latitud") instanceof Double) {
-                                            latitud = (Double) map.get("latitud");
-                                        } else if (map.get("latitud") instanceof Long) {
-                                            latitud = ((Long) map.get("latitud")).doubleValue();
-                                        } else if (map.get("latitud") instanceof Number) {
-                                            latitud = ((Number) map.get("latitud")).doubleValue();
-                                        }
-
-                                        if (map.get("longitud") instanceof Double) {
-                                            longitud = (Double) map.get("longitud");
-                                        } else if (map.get("longitud") instanceof Long) {
-                                            longitud = ((Long) map.get("longitud")).doubleValue();
-                                        } else if (map.get("longitud") instanceof Number) {
-                                            longitud = ((Number) map.get("longitud")).doubleValue();
-                                        }
-
-                                        if (etiqueta != null) {
-                                            BackupItem item = new BackupItem(etiqueta, latitud, longitud, observacion);
-                                            items.add(item);
-                                            Log.d(TAG, "Item recuperado: " + etiqueta);
-                                        }
-                                    }
-
-                                    emitter.onSuccess(items);
-                                } else {
-                                    Log.d(TAG, "No se encontraron items en Firebase");
-                                    emitter.onSuccess(new ArrayList<>());
-                                }
-                            } catch (Exception e) {
-                                Log.e(TAG, "Error parseando datos de Firebase", e);
-                                emitter.onError(e);
-                            }
-                        } else {
-                            Log.d(TAG, "No se encontró documento en Firebase o no contiene items");
-                            emitter.onSuccess(new ArrayList<>());
-                        }
-                    })
-                    .addOnFailureListener(e -> {
-                        Log.e(TAG, "Error recuperando datos de Firebase", e);
-                        emitter.onError(e);
-                    });
-        });
+    // Solo se mantienen en memoria las páginas cercanas a lo visible (maxSize acotado).
+    public static PagingConfig pagingConfig(int pageSize, int prefetchDistance) {
+        int initialLoadSize = pageSize * 2;
+        int maxSize = Math.max(initialLoadSize, pageSize + 2 * prefetchDistance) + pageSize;
+        return new PagingConfig(pageSize, prefetchDistance, false, initialLoadSize, maxSize);
     }
 
-    public Completable deleteBackup(String username) {
-        return Completable.create(emitter -> {
-            firestore.collection("backup")
-                    .document(username)
-                    .delete()
-                    .addOnSuccessListener(aVoid -> {
-                        Log.d(TAG, "Backup de Firebase eliminado para el usuario: " + username);
+    public Flowable<PagingData<BackupItem>> getPagedBackupItemsForUser(String username, PagingConfig config) {
+        return Flowable.defer(() -> {
+                    AppDatabase database = database(username);
+                    Pager<Integer, BackupItemEntity> pager = new Pager<>(config,
+                            () -> database.backupDao().pagingSourceForUser(username));
+
+                    return PagingRx.getFlowable(pager)
+                            .map(pagingData -> PagingDataTransforms.map(pagingData,
+                                    database.getQueryExecutor(), BackupItemEntity::toItem));
+                })
+                .subscribeOn(Schedulers.io());
+    }
+
+    // Sube solo las filas modificadas desde la última sincronización y emite cuántas se subieron.
+    public Single<Integer> syncPendingChanges(String username, String date, String deviceId) {
+        return Single.fromCallable(() -> syncEngine.uploadPending(username, date, deviceId))
+                .subscribeOn(Schedulers.io())
+                .doOnError(e -> Log.e(TAG, "Error sincronizando con Firebase", e));
+    }
+
+    // Descarga paginada: cada página se guarda en Room en su propia transacción antes de pedir
+    // la siguiente y se emite el total guardado hasta el momento.
+    public Observable<Integer> downloadBackupToLocal(String username) {
+        return downloadBackupToLocal(username, SyncEngine.DOWNLOAD_PAGE_SIZE);
+    }
+
+    public Observable<Integer> downloadBackupToLocal(String username, int pageSize) {
+        return Observable.<Integer>create(emitter -> {
+                    try {
+                        syncEngine.download(username, pageSize, emitter::onNext);
                         emitter.onComplete();
-                    })
-                    .addOnFailureListener(e -> {
-                        Log.e(TAG, "Error al eliminar backup de Firebase", e);
-                        emitter.onError(e);
-                    });
-        });
+                    } catch (BackendException e) {
+                        emitter.tryOnError(e);
+                    }
+                })
+                .subscribeOn(Schedulers.io())
+                .doOnError(e -> Log.e(TAG, "Error recuperando datos de Firebase", e));
     }
 
+    public Completable deleteBackup(String username) {
+        return Completable.fromAction(() -> syncEngine.deleteBackup(username))
+                .subscribeOn(Schedulers.io())
+                .doOnError(e -> Log.e(TAG, "Error al eliminar backup de Firebase", e));
+    }
 
-    public Completable deleteAllExceptUser(String username) {
-        return database.backupDao().deleteAllExceptUser(username);
+    private BackupItemEntity toDirtyEntity(BackupItem item, String username) {
+        BackupItemEntity entity = BackupItemEntity.from(item, username);
+        entity.setDirty(true);
+        entity.setUpdatedAt(clock.now());
+        entity.setDeviceId(deviceId);
+        entity.setDeleted(false);
+        return entity;
     }
 
-    public Completable deleteAllLocalBackup() {
-        return database.backupDao().deleteAll();
+    public static final class OutboxDrainResult {
+        private final List<BackupItem> saved;
+        private final int rejected;
+        private final int failed;
+
+        OutboxDrainResult(List<BackupItem> saved, int rejected, int failed) {
+            this.saved = saved;
+            this.rejected = rejected;
+            this.failed = failed;
+        }
+
+        OutboxDrainResult plus(OutboxDrainResult other) {
+            List<BackupItem> allSaved = new ArrayList<>(saved);
+            allSaved.addAll(other.saved);
+            return new OutboxDrainResult(allSaved, rejected + other.rejected, failed + other.failed);
+        }
+
+        public List<BackupItem> getSaved() {
+            return saved;
+        }
+
+        public int getRejected() {
+            return rejected;
+        }
+
+        public int getFailed() {
+            return failed;
+        }
     }
 
-}
\ No newline at end of file
+    public static final class ScanCapture {
+        private final BackupItem item;
+        private final boolean queued;
+
+        ScanCapture(BackupItem item, boolean queued) {
+            this.item = item;
+            this.queued = queued;
+        }
+
+        // Item ya guardado, o null si espera la validación remota.
+        public BackupItem getItem() {
+            return item;
+        }
+
+        // El payload quedó en la bandeja para el servicio remoto.
+        public boolean isQueued() {
+            return queued;
+        }
+    }
+
+    private static final class ValidatedScan {
+        final ScanOutboxEntity scan;
+        final ApiResponse response;
+        final Throwable error;
+
+        ValidatedScan(ScanOutboxEntity scan, ApiResponse response, Throwable error) {
+            this.scan = scan;
+            this.response = response;
+            this.error = error;
+        }
+    }
+}
@@ -0,0 +1,226 @@
+package com.svape.qr.coorapp.repository;
+
+import android.util.Log;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Locale;
+import java.util.concurrent.CancellationException;
+import io.reactivex.rxjava3.core.Observable;
+import io.reactivex.rxjava3.core.Single;
+import io.reactivex.rxjava3.disposables.Disposable;
+import io.reactivex.rxjava3.subjects.BehaviorSubject;
+import io.reactivex.rxjava3.subjects.SingleSubject;
+import io.reactivex.rxjava3.subjects.Subject;
+
+/**
+ * Punto único de sincronización de la app: nunca hay dos ciclos descarga-fusión-subida a la
+ * vez. Quien pide sincronizar mientras hay uno en curso recibe el resultado de una única
+ * sincronización de seguimiento, que arranca al terminar la actual y recoge los cambios que
+ * llegaron entretanto. El estado se publica en {@link #observeStatus()}.
+ */
+public class SyncCoordinator {
+    private static final String TAG = "SyncCoordinator";
+    // Escaneos que llegan mientras se sube se recogen en una pasada extra, hasta este límite.
+    static final int MAX_UPLOAD_PASSES = 3;
+
+    public static final class Status {
+        public enum State {
+            IDLE,
+            RUNNING,
+            SUCCEEDED,
+            FAILED
+        }
+
+        private final State state;
+        private final String username;
+        private final int downloaded;
+        private final int uploaded;
+        private final Throwable error;
+
+        private Status(State state, String username, int downloaded, int uploaded, Throwable error) {
+            this.state = state;
+            this.username = username;
+            this.downloaded = downloaded;
+            this.uploaded = uploaded;
+            this.error = error;
+        }
+
+        static Status idle() {
+            return new Status(State.IDLE, null, 0, 0, null);
+        }
+
+        static Status running(String username, int downloaded) {
+            return new Status(State.RUNNING, username, downloaded, 0, null);
+        }
+
+        static Status succeeded(String username, int downloaded, int uploaded) {
+            return new Status(State.SUCCEEDED, username, downloaded, uploaded, null);
+        }
+
+        static Status failed(String username, Throwable error) {
+            return new Status(State.FAILED, username, 0, 0, error);
+        }
+
+        public State getState() {
+            return state;
+        }
+
+        public String getUsername() {
+            return username;
+        }
+
+        public int getDownloaded() {
+            return downloaded;
+        }
+
+        public int getUploaded() {
+            return uploaded;
+        }
+
+        public Throwable getError() {
+            return error;
+        }
+    }
+
+    private final BackupRepository backupRepository;
+    private final String deviceId;
+    // Recibe onNext desde quien llama, el hilo io de la descarga y el de cancel(): serializado.
+    private final Subject<Status> status = BehaviorSubject.createDefault(Status.idle()).toSerialized();
+    private final Object lock = new Object();
+
+    // Todo lo siguiente se protege con lock.
+    private SingleSubject<Status> current;
+    private Disposable currentRun;
+    private SingleSubject<Status> followUp;
+    private String followUpUsername;
+
+    public SyncCoordinator(BackupRepository backupRepository, String deviceId) {
+        this.backupRepository = backupRepository;
+        this.deviceId = deviceId;
+    }
+
+    /**
+     * Emite el estado final de la sincronización que cubre esta solicitud, o su error.
+     * Cancelar la suscripción no detiene la sincronización, que pueden estar esperando otros.
+     */
+    public Single<Status> sync(String username) {
+        return Single.defer(() -> {
+            SingleSubject<Status> started;
+            synchronized (lock) {
+                if (current != null) {
+                    // Solo se encola un seguimiento; si cambió el usuario, corre para el último.
+                    if (followUp == null) {
+                        followUp = SingleSubject.create();
+                    }
+                    followUpUsername = username;
+                    Log.d(TAG, "Sincronización en curso, se encola un seguimiento para usuario: " + username);
+                    return followUp;
+                }
+                started = SingleSubject.create();
+                current = started;
+            }
+            launch(username, started);
+            return started;
+        });
+    }
+
+    public Observable<Status> observeStatus() {
+        return status;
+    }
+
+    // Cierre de sesión: detiene la sincronización en curso y descarta el seguimiento.
+    public void cancel() {
+        SingleSubject<Status> cancelled;
+        SingleSubject<Status> cancelledFollowUp;
+        Disposable run;
+        synchronized (lock) {
+            cancelled = current;
+            cancelledFollowUp = followUp;
+            run = currentRun;
+            current = null;
+            currentRun = null;
+            followUp = null;
+            followUpUsername = null;
+        }
+
+        if (run != null) {
+            run.dispose();
+        }
+        CancellationException error = new CancellationException("Sincronización cancelada");
+        if (cancelled != null) {
+            cancelled.onError(error);
+        }
+        if (cancelledFollowUp != null) {
+            cancelledFollowUp.onError(error);
+        }
+        status.onNext(Status.idle());
+    }
+
+    private void launch(String username, SingleSubject<Status> result) {
+        Log.d(TAG, "Iniciando sincronización para usuario: " + username);
+        status.onNext(Status.running(username, 0));
+
+        Disposable run = runSync(username).subscribe(
+                done -> finish(result, done, null),
+                error -> finish(result, Status.failed(username, error), error));
+        synchronized (lock) {
+            if (current == result) {
+                currentRun = run;
+                return;
+            }
+        }
+        // Se canceló mientras arrancaba.
+        run.dispose();
+    }
+
+    private void finish(SingleSubject<Status> result, Status done, Throwable error) {
+        synchronized (lock) {
+            if (current != result) {
+                return;
+            }
+        }
+
+        status.onNext(done);
+        if (error != null) {
+            result.onError(error);
+        } else {
+            result.onSuccess(done);
+        }
+
+        SingleSubject<Status> next;
+        String nextUsername;
+        synchronized (lock) {
+            if (current != result) {
+                return;
+            }
+            next = followUp;
+            nextUsername = followUpUsername;
+            followUp = null;
+            followUpUsername = null;
+            current = next;
+            currentRun = null;
+        }
+
+        if (next != null) {
+            launch(nextUsername, next);
+        } else {
+            status.onNext(Status.idle());
+        }
+    }
+
+    private Single<Status> runSync(String username) {
+        String date = new SimpleDateFormat("yyyy-MM-dd", Locale.getDefault()).format(new Date());
+        return backupRepository.downloadBackupToLocal(username)
+                .doOnNext(saved -> status.onNext(Status.running(username, saved)))
+                .last(0)
+                .flatMap(downloaded -> uploadPending(username, date, 1)
+                        .map(uploaded -> Status.succeeded(username, downloaded, uploaded)));
+    }
+
+    private Single<Integer> uploadPending(String username, String date, int pass) {
+        return backupRepository.syncPendingChanges(username, date, deviceId)
+                .flatMap(uploaded -> uploaded > 0 && pass < MAX_UPLOAD_PASSES
+                        ? uploadPending(username, date, pass + 1).map(more -> uploaded + more)
+                        : Single.just(uploaded));
+    }
+}
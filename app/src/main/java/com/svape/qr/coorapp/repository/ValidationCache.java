@@ -0,0 +1,155 @@
+package com.svape.qr.coorapp.repository;
+
+import android.util.Log;
+import com.svape.qr.coorapp.model.ApiResponse;
+import com.svape.qr.coorapp.repository.local.UserDatabaseManager;
+import com.svape.qr.coorapp.repository.local.ValidationCacheDao;
+import com.svape.qr.coorapp.repository.local.ValidationCacheEntity;
+import com.svape.qr.coorapp.util.TtlLruCache;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Respuestas del servicio de validación por SHA-256 del payload: un nivel en memoria (LRU) y
+ * otro en la tabla validation_cache de la base del usuario, que sobrevive a reinicios. Una
+ * etiqueta reescaneada en la recogida, el centro y la entrega se valida una sola vez por día.
+ * Las llamadas son síncronas.
+ */
+public class ValidationCache {
+    private static final String TAG = "ValidationCache";
+    public static final int MEMORY_ENTRIES = 512;
+    public static final int DISK_ENTRIES = 5_000;
+    public static final long TTL_MILLIS = TimeUnit.DAYS.toMillis(1);
+    // Escrituras entre recortes de la tabla.
+    static final int TRIM_INTERVAL = 100;
+
+    private final UserDatabaseManager databaseManager;
+    private final LongSupplier clock;
+    private final TtlLruCache<String, ApiResponse> memory;
+    private final AtomicLong diskHits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong writes = new AtomicLong();
+
+    public ValidationCache(UserDatabaseManager databaseManager, LongSupplier clock) {
+        this.databaseManager = databaseManager;
+        this.clock = clock;
+        this.memory = new TtlLruCache<>(MEMORY_ENTRIES, TTL_MILLIS, clock);
+    }
+
+    // Devuelve null si el payload no se validó en las últimas TTL_MILLIS.
+    public ApiResponse get(String username, String payload) {
+        String digest = digest(payload);
+        ApiResponse cached = memory.get(digest);
+        if (cached != null) {
+            return cached;
+        }
+
+        ValidationCacheEntity entity = dao(username).get(digest, clock.getAsLong() - TTL_MILLIS);
+        if (entity == null) {
+            misses.incrementAndGet();
+            return null;
+        }
+        diskHits.incrementAndGet();
+        ApiResponse response = new ApiResponse(entity.isCorrect(), entity.getData());
+        memory.put(digest, response, entity.getCachedAt());
+        return response;
+    }
+
+    public void put(String username, String payload, ApiResponse response) {
+        String digest = digest(payload);
+        long now = clock.getAsLong();
+        memory.put(digest, response, now);
+
+        ValidationCacheDao dao = dao(username);
+        dao.put(new ValidationCacheEntity(digest, response.isCorrect(), response.getData(), now));
+        if (writes.incrementAndGet() % TRIM_INTERVAL == 0) {
+            int removed = dao.trim(now - TTL_MILLIS, DISK_ENTRIES);
+            Log.d(TAG, "Caché de validación recortada: " + removed + " entradas");
+        }
+    }
+
+    public Stats getStats() {
+        return new Stats(memory.getHits(), diskHits.get(), misses.get(), memory.getEvictions(),
+                memory.getExpirations(), memory.size());
+    }
+
+    private ValidationCacheDao dao(String username) {
+        return databaseManager.open(username).validationCacheDao();
+    }
+
+    // El lector y Base64.DEFAULT pueden agregar saltos de línea; no cambian el contenido.
+    static String digest(String payload) {
+        StringBuilder normalized = new StringBuilder(payload.length());
+        for (int i = 0; i < payload.length(); i++) {
+            char c = payload.charAt(i);
+            if (!Character.isWhitespace(c)) {
+                normalized.append(c);
+            }
+        }
+
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256")
+                    .digest(normalized.toString().getBytes(StandardCharsets.UTF_8));
+            StringBuilder hex = new StringBuilder(hash.length * 2);
+            for (byte b : hash) {
+                hex.append(Character.forDigit((b >> 4) & 0xF, 16));
+                hex.append(Character.forDigit(b & 0xF, 16));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
+    }
+
+    public static final class Stats {
+        private final long memoryHits;
+        private final long diskHits;
+        private final long misses;
+        private final long evictions;
+        private final long expirations;
+        private final int memoryEntries;
+
+        Stats(long memoryHits, long diskHits, long misses, long evictions, long expirations, int memoryEntries) {
+            this.memoryHits = memoryHits;
+            this.diskHits = diskHits;
+            this.misses = misses;
+            this.evictions = evictions;
+            this.expirations = expirations;
+            this.memoryEntries = memoryEntries;
+        }
+
+        public long getMemoryHits() {
+            return memoryHits;
+        }
+
+        public long getDiskHits() {
+            return diskHits;
+        }
+
+        public long getMisses() {
+            return misses;
+        }
+
+        public long getEvictions() {
+            return evictions;
+        }
+
+        public long getExpirations() {
+            return expirations;
+        }
+
+        public int getMemoryEntries() {
+            return memoryEntries;
+        }
+
+        @Override
+        public String toString() {
+            return "aciertos memoria=" + memoryHits + ", aciertos disco=" + diskHits + ", fallos=" + misses
+                    + ", expulsiones=" + evictions + ", vencidas=" + expirations + ", en memoria=" + memoryEntries;
+        }
+    }
+}
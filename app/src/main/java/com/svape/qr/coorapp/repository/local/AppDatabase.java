@@ -3,7 +3,14 @@ package com.svape.qr.coorapp.repository.local;
 import androidx.room.Database;
 import androidx.room.RoomDatabase;
 
-@Database(entities = {BackupItemEntity.class}, version = 2, exportSchema = false)
+@Database(entities = {BackupItemEntity.class, SyncStateEntity.class, ScanOutboxEntity.class,
+        ValidationCacheEntity.class}, version = 10, exportSchema = false)
 public abstract class AppDatabase extends RoomDatabase {
     public abstract BackupDao backupDao();
+
+    public abstract SyncStateDao syncStateDao();
+
+    public abstract ScanOutboxDao scanOutboxDao();
+
+    public abstract ValidationCacheDao validationCacheDao();
 }
\ No newline at end of file
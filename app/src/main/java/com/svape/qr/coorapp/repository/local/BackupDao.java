@@ -1,29 +1,64 @@
 package com.svape.qr.coorapp.repository.local;
 
+import android.database.Cursor;
+import androidx.paging.PagingSource;
 import androidx.room.Dao;
 import androidx.room.Insert;
+import androidx.room.OnConflictStrategy;
 import androidx.room.Query;
 import java.util.List;
 import io.reactivex.rxjava3.core.Completable;
-import io.reactivex.rxjava3.core.Single;
 
 @Dao
 public interface BackupDao {
-    @Insert
-    Completable insert(BackupItemEntity item);
+    // Un nuevo escaneo de la misma etiqueta reemplaza la fila anterior del usuario.
+    // No se usa @Upsert porque actualiza por id y las filas nuevas llegan con id autogenerado.
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    Completable upsert(BackupItemEntity item);
 
-    @Query("SELECT * FROM backup_local")
-    Single<List<BackupItemEntity>> getAll();
+    // Versiones remotas ganadoras de una página de descarga; se llama dentro de la transacción
+    // que resuelve la página, las filas existentes llegan con su id para conservarlo.
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void replaceAll(List<BackupItemEntity> items);
 
-    @Query("SELECT * FROM backup_local WHERE username = :username")
-    Single<List<BackupItemEntity>> getAllForUser(String username);
+    @Query("SELECT * FROM backup_local WHERE username = :username AND etiqueta1d IN (:etiquetas)")
+    List<BackupItemEntity> getForUserByEtiquetas(String username, List<String> etiquetas);
 
-    @Query("SELECT COUNT(*) FROM backup_local")
-    Single<Integer> getCount();
+    @Query("UPDATE backup_local SET dirty = 1 WHERE id IN (:ids) AND dirty = 0")
+    void markDirty(List<Long> ids);
 
-    @Query("DELETE FROM backup_local")
-    Completable deleteAll();
+    // Borrado lógico: la lápida se sube como cualquier otro cambio.
+    @Query("UPDATE backup_local SET deleted = 1, dirty = 1, updatedAt = :updatedAt, deviceId = :deviceId " +
+            "WHERE id = :id")
+    Completable markDeleted(int id, long updatedAt, String deviceId);
 
-    @Query("DELETE FROM backup_local WHERE username != :username")
-    Completable deleteAllExceptUser(String username);
+    // El servicio rechazó un escaneo que se había guardado tras validarlo en el dispositivo.
+    @Query("UPDATE backup_local SET deleted = 1, dirty = 1, updatedAt = :updatedAt, deviceId = :deviceId " +
+            "WHERE username = :username AND etiqueta1d = :etiqueta AND deleted = 0")
+    int markDeletedByEtiqueta(String username, String etiqueta, long updatedAt, String deviceId);
+
+    // Solo lápidas ya subidas y más antiguas que el plazo de retención.
+    @Query("DELETE FROM backup_local WHERE username = :username AND deleted = 1 AND dirty = 0 " +
+            "AND updatedAt < :cutoff")
+    int purgeTombstones(String username, long cutoff);
+
+    @Query("SELECT * FROM backup_local WHERE username = :username AND deleted = 0 ORDER BY id ASC")
+    PagingSource<Integer, BackupItemEntity> pagingSourceForUser(String username);
+
+    // Recorrido fila a fila para calcular la huella del contenido sin cargar la lista completa.
+    @Query("SELECT etiqueta1d, latitud, longitud, observacion FROM backup_local " +
+            "WHERE username = :username AND deleted = 0")
+    Cursor contentCursorForUser(String username);
+
+    @Query("SELECT * FROM backup_local WHERE username = :username AND dirty = 1 ORDER BY id ASC")
+    List<BackupItemEntity> getDirtyForUser(String username);
+
+    // Solo se limpia la marca si la fila no cambió durante la subida (mismo id y updatedAt).
+    @Query("UPDATE backup_local SET dirty = 0, syncedAt = :syncedAt " +
+            "WHERE id = :id AND updatedAt = :updatedAt")
+    int markSynced(int id, long updatedAt, long syncedAt);
+
+    // Cambios de cualquier usuario aún sin subir; se revisa antes de expulsar la base.
+    @Query("SELECT COUNT(*) FROM backup_local WHERE dirty = 1")
+    int countDirty();
 }
\ No newline at end of file
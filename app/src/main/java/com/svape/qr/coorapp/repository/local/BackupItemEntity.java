@@ -1,9 +1,13 @@
 package com.svape.qr.coorapp.repository.local;
 
+import androidx.room.ColumnInfo;
 import androidx.room.Entity;
+import androidx.room.Index;
 import androidx.room.PrimaryKey;
+import com.svape.qr.coorapp.model.BackupItem;
 
-@Entity(tableName = "backup_local")
+@Entity(tableName = "backup_local",
+        indices = {@Index(value = {"username", "etiqueta1d"}, unique = true)})
 public class BackupItemEntity {
     @PrimaryKey(autoGenerate = true)
     private int id;
@@ -14,6 +18,19 @@ public class BackupItemEntity {
     private String observacion;
     private String username;
 
+    // Seguimiento de cambios para la sincronización incremental (ver MIGRATION_3_4).
+    @ColumnInfo(defaultValue = "1")
+    private boolean dirty;
+    @ColumnInfo(defaultValue = "0")
+    private long updatedAt;
+    @ColumnInfo(defaultValue = "0")
+    private long syncedAt;
+
+    // Versión LWW (ver MIGRATION_5_6): dispositivo que escribió la versión y marca de borrado.
+    private String deviceId;
+    @ColumnInfo(defaultValue = "0")
+    private boolean deleted;
+
     public BackupItemEntity(String etiqueta1d, double latitud, double longitud, String observacion, String username) {
         this.etiqueta1d = etiqueta1d;
         this.latitud = latitud;
@@ -22,6 +39,31 @@ public class BackupItemEntity {
         this.username = username;
     }
 
+    // Copia los datos y la versión LWW del item; el id solo se conserva si el item ya lo trae.
+    public static BackupItemEntity from(BackupItem item, String username) {
+        BackupItemEntity entity = new BackupItemEntity(
+                item.getEtiqueta1d(),
+                item.getLatitud(),
+                item.getLongitud(),
+                item.getObservacion(),
+                username
+        );
+        entity.setId((int) item.getId());
+        entity.setUpdatedAt(item.getUpdatedAt());
+        entity.setDeviceId(item.getDeviceId());
+        entity.setDeleted(item.isDeleted());
+        return entity;
+    }
+
+    public BackupItem toItem() {
+        BackupItem item = new BackupItem(etiqueta1d, latitud, longitud, observacion);
+        item.setId(id);
+        item.setUpdatedAt(updatedAt);
+        item.setDeviceId(deviceId);
+        item.setDeleted(deleted);
+        return item;
+    }
+
     public int getId() {
         return id;
     }
@@ -69,4 +111,44 @@ public class BackupItemEntity {
     public void setUsername(String username) {
         this.username = username;
     }
+
+    public boolean isDirty() {
+        return dirty;
+    }
+
+    public void setDirty(boolean dirty) {
+        this.dirty = dirty;
+    }
+
+    public long getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(long updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    public long getSyncedAt() {
+        return syncedAt;
+    }
+
+    public void setSyncedAt(long syncedAt) {
+        this.syncedAt = syncedAt;
+    }
+
+    public String getDeviceId() {
+        return deviceId;
+    }
+
+    public void setDeviceId(String deviceId) {
+        this.deviceId = deviceId;
+    }
+
+    public boolean isDeleted() {
+        return deleted;
+    }
+
+    public void setDeleted(boolean deleted) {
+        this.deleted = deleted;
+    }
 }
\ No newline at end of file
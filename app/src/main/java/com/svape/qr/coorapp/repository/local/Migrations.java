@@ -0,0 +1,111 @@
+package com.svape.qr.coorapp.repository.local;
+
+import androidx.annotation.NonNull;
+import androidx.room.migration.Migration;
+import androidx.sqlite.db.SupportSQLiteDatabase;
+
+public final class Migrations {
+
+    public static final Migration MIGRATION_1_2 = new Migration(1, 2) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase database) {
+            database.execSQL("ALTER TABLE backup_local ADD COLUMN username TEXT");
+
+            database.execSQL("UPDATE backup_local SET username = 'legacy_user' WHERE username IS NULL");
+        }
+    };
+
+    public static final Migration MIGRATION_2_3 = new Migration(2, 3) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase database) {
+            database.execSQL("DELETE FROM backup_local WHERE id NOT IN " +
+                    "(SELECT MAX(id) FROM backup_local GROUP BY username, etiqueta1d)");
+
+            database.execSQL("CREATE UNIQUE INDEX IF NOT EXISTS index_backup_local_username_etiqueta1d " +
+                    "ON backup_local (username, etiqueta1d)");
+        }
+    };
+
+    // Las filas existentes quedan pendientes: se suben una vez con la sincronización incremental.
+    public static final Migration MIGRATION_3_4 = new Migration(3, 4) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase database) {
+            database.execSQL("ALTER TABLE backup_local ADD COLUMN dirty INTEGER NOT NULL DEFAULT 1");
+            database.execSQL("ALTER TABLE backup_local ADD COLUMN updatedAt INTEGER NOT NULL DEFAULT 0");
+            database.execSQL("ALTER TABLE backup_local ADD COLUMN syncedAt INTEGER NOT NULL DEFAULT 0");
+        }
+    };
+
+    public static final Migration MIGRATION_4_5 = new Migration(4, 5) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase database) {
+            database.execSQL("CREATE TABLE IF NOT EXISTS sync_state (" +
+                    "username TEXT NOT NULL, " +
+                    "remoteVersion INTEGER NOT NULL, " +
+                    "contentHash TEXT, " +
+                    "itemCount INTEGER NOT NULL, " +
+                    "updatedAt INTEGER NOT NULL, " +
+                    "PRIMARY KEY(username))");
+        }
+    };
+
+    public static final Migration MIGRATION_5_6 = new Migration(5, 6) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase database) {
+            database.execSQL("ALTER TABLE backup_local ADD COLUMN deviceId TEXT");
+            database.execSQL("ALTER TABLE backup_local ADD COLUMN deleted INTEGER NOT NULL DEFAULT 0");
+        }
+    };
+
+    public static final Migration MIGRATION_6_7 = new Migration(6, 7) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase database) {
+            database.execSQL("CREATE TABLE IF NOT EXISTS scan_outbox (" +
+                    "id INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL, " +
+                    "username TEXT NOT NULL, " +
+                    "payload TEXT NOT NULL, " +
+                    "capturedAt INTEGER NOT NULL, " +
+                    "attempts INTEGER NOT NULL DEFAULT 0, " +
+                    "lastError TEXT, " +
+                    "rejected INTEGER NOT NULL DEFAULT 0)");
+        }
+    };
+
+    public static final Migration MIGRATION_7_8 = new Migration(7, 8) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase database) {
+            database.execSQL("ALTER TABLE sync_state ADD COLUMN downloadVersion INTEGER NOT NULL DEFAULT -1");
+            database.execSQL("ALTER TABLE sync_state ADD COLUMN downloadCursor TEXT");
+            database.execSQL("ALTER TABLE sync_state ADD COLUMN uploadUnpublished INTEGER NOT NULL DEFAULT 0");
+        }
+    };
+
+    public static final Migration MIGRATION_8_9 = new Migration(8, 9) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase database) {
+            database.execSQL("ALTER TABLE scan_outbox ADD COLUMN savedLocally INTEGER NOT NULL DEFAULT 0");
+        }
+    };
+
+    public static final Migration MIGRATION_9_10 = new Migration(9, 10) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase database) {
+            database.execSQL("CREATE TABLE IF NOT EXISTS validation_cache (" +
+                    "digest TEXT NOT NULL, " +
+                    "correct INTEGER NOT NULL, " +
+                    "data TEXT, " +
+                    "cachedAt INTEGER NOT NULL, " +
+                    "PRIMARY KEY(digest))");
+            database.execSQL("CREATE INDEX IF NOT EXISTS index_validation_cache_cachedAt " +
+                    "ON validation_cache (cachedAt)");
+        }
+    };
+
+    public static final Migration[] ALL = {
+            MIGRATION_1_2, MIGRATION_2_3, MIGRATION_3_4, MIGRATION_4_5, MIGRATION_5_6, MIGRATION_6_7,
+            MIGRATION_7_8, MIGRATION_8_9, MIGRATION_9_10
+    };
+
+    private Migrations() {
+    }
+}
@@ -0,0 +1,118 @@
+package com.svape.qr.coorapp.repository.local;
+
+import android.database.Cursor;
+import com.svape.qr.coorapp.model.BackupItem;
+import com.svape.qr.coorapp.sync.ContentHash;
+import com.svape.qr.coorapp.sync.LocalStore;
+import com.svape.qr.coorapp.sync.SyncState;
+import java.util.ArrayList;
+import java.util.List;
+
+// LocalStore sobre la base Room de cada usuario; las llamadas son síncronas.
+public class RoomLocalStore implements LocalStore {
+    private final UserDatabaseManager databaseManager;
+
+    public RoomLocalStore(UserDatabaseManager databaseManager) {
+        this.databaseManager = databaseManager;
+    }
+
+    private AppDatabase database(String username) {
+        return databaseManager.open(username);
+    }
+
+    @Override
+    public void runInTransaction(String username, Runnable body) {
+        database(username).runInTransaction(body);
+    }
+
+    @Override
+    public List<BackupItem> findByEtiquetas(String username, List<String> etiquetas) {
+        return toItems(database(username).backupDao().getForUserByEtiquetas(username, etiquetas));
+    }
+
+    @Override
+    public void replaceAll(String username, List<BackupItem> items, long syncedAt) {
+        List<BackupItemEntity> entities = new ArrayList<>(items.size());
+        for (BackupItem item : items) {
+            BackupItemEntity entity = BackupItemEntity.from(item, username);
+            entity.setDirty(false);
+            entity.setSyncedAt(syncedAt);
+            entities.add(entity);
+        }
+        database(username).backupDao().replaceAll(entities);
+    }
+
+    @Override
+    public void markDirty(String username, List<Long> ids) {
+        database(username).backupDao().markDirty(ids);
+    }
+
+    @Override
+    public List<BackupItem> getDirty(String username) {
+        return toItems(database(username).backupDao().getDirtyForUser(username));
+    }
+
+    @Override
+    public int markSynced(String username, List<BackupItem> items, long syncedAt) {
+        AppDatabase database = database(username);
+        BackupDao dao = database.backupDao();
+        return database.runInTransaction(() -> {
+            int updated = 0;
+            for (BackupItem item : items) {
+                updated += dao.markSynced((int) item.getId(), item.getUpdatedAt(), syncedAt);
+            }
+            return updated;
+        });
+    }
+
+    @Override
+    public int purgeTombstones(String username, long cutoff) {
+        return database(username).backupDao().purgeTombstones(username, cutoff);
+    }
+
+    @Override
+    public ContentHash contentHash(String username) {
+        ContentHash hash = new ContentHash();
+        try (Cursor cursor = database(username).backupDao().contentCursorForUser(username)) {
+            while (cursor.moveToNext()) {
+                hash.add(cursor.getString(0), cursor.getDouble(1), cursor.getDouble(2),
+                        cursor.isNull(3) ? null : cursor.getString(3));
+            }
+        }
+        return hash;
+    }
+
+    @Override
+    public SyncState getSyncState(String username) {
+        SyncStateEntity entity = database(username).syncStateDao().get(username);
+        if (entity == null) {
+            return null;
+        }
+        return new SyncState(entity.getUsername(), entity.getRemoteVersion(), entity.getContentHash(),
+                entity.getItemCount(), entity.getUpdatedAt(), entity.getDownloadVersion(),
+                entity.getDownloadCursor(), entity.isUploadUnpublished());
+    }
+
+    @Override
+    public void saveSyncState(SyncState state) {
+        SyncStateEntity entity = new SyncStateEntity(state.getUsername(), state.getRemoteVersion(),
+                state.getContentHash(), state.getItemCount(), state.getUpdatedAt());
+        entity.setDownloadVersion(state.getDownloadVersion());
+        entity.setDownloadCursor(state.getDownloadCursor());
+        entity.setUploadUnpublished(state.isUploadUnpublished());
+        database(state.getUsername()).syncStateDao().save(entity);
+    }
+
+    @Override
+    public void deleteSyncState(String username) {
+        database(username).syncStateDao().delete(username);
+    }
+
+    private static List<BackupItem> toItems(List<BackupItemEntity> entities) {
+        List<BackupItem> items = new ArrayList<>(entities.size());
+        for (BackupItemEntity entity : entities) {
+            items.add(entity.toItem());
+        }
+        return items;
+    }
+}
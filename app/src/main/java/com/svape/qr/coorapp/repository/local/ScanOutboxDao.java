@@ -0,0 +1,32 @@
+package com.svape.qr.coorapp.repository.local;
+
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.Query;
+import java.util.List;
+import io.reactivex.rxjava3.core.Completable;
+
+// Las consultas síncronas se llaman desde el trabajo que vacía la bandeja, nunca desde el hilo principal.
+@Dao
+public interface ScanOutboxDao {
+    @Insert
+    Completable insert(ScanOutboxEntity scan);
+
+    // En orden de captura, para que un reescaneo posterior de la misma etiqueta gane.
+    @Query("SELECT * FROM scan_outbox WHERE username = :username AND rejected = 0 " +
+            "ORDER BY id ASC LIMIT :limit")
+    List<ScanOutboxEntity> getPending(String username, int limit);
+
+    @Query("DELETE FROM scan_outbox WHERE id IN (:ids)")
+    void delete(List<Long> ids);
+
+    @Query("UPDATE scan_outbox SET rejected = 1, lastError = :error WHERE id = :id")
+    void markRejected(long id, String error);
+
+    @Query("UPDATE scan_outbox SET attempts = attempts + 1, lastError = :error WHERE id IN (:ids)")
+    void recordFailure(List<Long> ids, String error);
+
+    // Escaneos de cualquier usuario pendientes de validar; se revisa antes de expulsar la base.
+    @Query("SELECT COUNT(*) FROM scan_outbox WHERE rejected = 0")
+    int countPending();
+}
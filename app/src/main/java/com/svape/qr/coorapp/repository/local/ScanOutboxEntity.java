@@ -0,0 +1,104 @@
+package com.svape.qr.coorapp.repository.local;
+
+import androidx.annotation.NonNull;
+import androidx.room.ColumnInfo;
+import androidx.room.Entity;
+import androidx.room.PrimaryKey;
+
+// Escaneo crudo capturado sin esperar a la red; se valida en el servicio al vaciar la bandeja.
+@Entity(tableName = "scan_outbox")
+public class ScanOutboxEntity {
+    @PrimaryKey(autoGenerate = true)
+    private long id;
+
+    @NonNull
+    private String username;
+    // Payload tal como llega del lector (Base64), listo para el servicio de validación.
+    @NonNull
+    private String payload;
+    private long capturedAt;
+
+    // Intentos fallidos por red o servidor; el escaneo se conserva hasta validarse.
+    @ColumnInfo(defaultValue = "0")
+    private int attempts;
+    private String lastError;
+    // El servicio respondió que la estructura es incorrecta: no se reintenta.
+    @ColumnInfo(defaultValue = "0")
+    private boolean rejected;
+    // Ya se guardó tras validarlo en el dispositivo (ver MIGRATION_8_9): el servicio solo confirma.
+    @ColumnInfo(defaultValue = "0")
+    private boolean savedLocally;
+
+    public ScanOutboxEntity(@NonNull String username, @NonNull String payload, long capturedAt, boolean savedLocally) {
+        this.username = username;
+        this.payload = payload;
+        this.capturedAt = capturedAt;
+        this.savedLocally = savedLocally;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public void setId(long id) {
+        this.id = id;
+    }
+
+    @NonNull
+    public String getUsername() {
+        return username;
+    }
+
+    public void setUsername(@NonNull String username) {
+        this.username = username;
+    }
+
+    @NonNull
+    public String getPayload() {
+        return payload;
+    }
+
+    public void setPayload(@NonNull String payload) {
+        this.payload = payload;
+    }
+
+    public long getCapturedAt() {
+        return capturedAt;
+    }
+
+    public void setCapturedAt(long capturedAt) {
+        this.capturedAt = capturedAt;
+    }
+
+    public int getAttempts() {
+        return attempts;
+    }
+
+    public void setAttempts(int attempts) {
+        this.attempts = attempts;
+    }
+
+    public String getLastError() {
+        return lastError;
+    }
+
+    public void setLastError(String lastError) {
+        this.lastError = lastError;
+    }
+
+    public boolean isRejected() {
+        return rejected;
+    }
+
+    public void setRejected(boolean rejected) {
+        this.rejected = rejected;
+    }
+
+    public boolean isSavedLocally() {
+        return savedLocally;
+    }
+
+    public void setSavedLocally(boolean savedLocally) {
+        this.savedLocally = savedLocally;
+    }
+}
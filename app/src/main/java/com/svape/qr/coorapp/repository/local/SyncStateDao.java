@@ -0,0 +1,19 @@
+package com.svape.qr.coorapp.repository.local;
+
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.OnConflictStrategy;
+import androidx.room.Query;
+
+// Consultas síncronas: se llaman desde las cadenas de sincronización, nunca desde el hilo principal.
+@Dao
+public interface SyncStateDao {
+    @Query("SELECT * FROM sync_state WHERE username = :username")
+    SyncStateEntity get(String username);
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void save(SyncStateEntity state);
+
+    @Query("DELETE FROM sync_state WHERE username = :username")
+    void delete(String username);
+}
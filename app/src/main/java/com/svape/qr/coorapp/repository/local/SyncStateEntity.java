@@ -0,0 +1,100 @@
+package com.svape.qr.coorapp.repository.local;
+
+import androidx.annotation.NonNull;
+import androidx.room.ColumnInfo;
+import androidx.room.Entity;
+import androidx.room.PrimaryKey;
+
+// Último estado remoto con el que el backup local quedó reconciliado.
+@Entity(tableName = "sync_state")
+public class SyncStateEntity {
+    @PrimaryKey
+    @NonNull
+    private String username;
+
+    private long remoteVersion;
+    private String contentHash;
+    private int itemCount;
+    private long updatedAt;
+
+    // Puntos de control de una sincronización interrumpida (ver MIGRATION_7_8).
+    @ColumnInfo(defaultValue = "-1")
+    private long downloadVersion;
+    private String downloadCursor;
+    @ColumnInfo(defaultValue = "0")
+    private boolean uploadUnpublished;
+
+    public SyncStateEntity(@NonNull String username, long remoteVersion, String contentHash, int itemCount, long updatedAt) {
+        this.username = username;
+        this.remoteVersion = remoteVersion;
+        this.contentHash = contentHash;
+        this.itemCount = itemCount;
+        this.updatedAt = updatedAt;
+        this.downloadVersion = -1;
+    }
+
+    @NonNull
+    public String getUsername() {
+        return username;
+    }
+
+    public void setUsername(@NonNull String username) {
+        this.username = username;
+    }
+
+    public long getRemoteVersion() {
+        return remoteVersion;
+    }
+
+    public void setRemoteVersion(long remoteVersion) {
+        this.remoteVersion = remoteVersion;
+    }
+
+    public String getContentHash() {
+        return contentHash;
+    }
+
+    public void setContentHash(String contentHash) {
+        this.contentHash = contentHash;
+    }
+
+    public int getItemCount() {
+        return itemCount;
+    }
+
+    public void setItemCount(int itemCount) {
+        this.itemCount = itemCount;
+    }
+
+    public long getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(long updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    public long getDownloadVersion() {
+        return downloadVersion;
+    }
+
+    public void setDownloadVersion(long downloadVersion) {
+        this.downloadVersion = downloadVersion;
+    }
+
+    public String getDownloadCursor() {
+        return downloadCursor;
+    }
+
+    public void setDownloadCursor(String downloadCursor) {
+        this.downloadCursor = downloadCursor;
+    }
+
+    public boolean isUploadUnpublished() {
+        return uploadUnpublished;
+    }
+
+    public void setUploadUnpublished(boolean uploadUnpublished) {
+        this.uploadUnpublished = uploadUnpublished;
+    }
+}
@@ -0,0 +1,188 @@
+package com.svape.qr.coorapp.repository.local;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.util.Log;
+import androidx.annotation.NonNull;
+import androidx.room.Room;
+import androidx.room.RoomDatabase;
+import androidx.sqlite.db.SupportSQLiteDatabase;
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Una base de datos Room por usuario. Cambiar de usuario abre otro archivo en lugar de borrar
+ * filas; en disco se conservan las {@link #MAX_RETAINED_USERS} bases usadas más recientemente.
+ * Las bases abiertas en el proceso no se cierran al cambiar de usuario (un trabajo en segundo
+ * plano o una lista paginada pueden seguir leyendo de ellas) y nunca se expulsan; tampoco las
+ * que aún tienen cambios sin subir o escaneos en la bandeja.
+ */
+public class UserDatabaseManager {
+    private static final String TAG = "UserDatabaseManager";
+    public static final int MAX_RETAINED_USERS = 3;
+
+    static final String LEGACY_DATABASE_NAME = "app_database";
+    private static final String PREF_NAME = "UserDatabases";
+    private static final String KEY_RECENT = "recent";
+    private static final String SEPARATOR = "\n";
+
+    private final Context context;
+    private final SharedPreferences preferences;
+    private final int maxRetained;
+
+    private final Map<String, AppDatabase> openDatabases = new HashMap<>();
+
+    public UserDatabaseManager(Context context) {
+        this(context, MAX_RETAINED_USERS);
+    }
+
+    public UserDatabaseManager(Context context, int maxRetained) {
+        this.context = context.getApplicationContext();
+        this.preferences = this.context.getSharedPreferences(PREF_NAME, Context.MODE_PRIVATE);
+        this.maxRetained = Math.max(1, maxRetained);
+    }
+
+    // Abre (o reutiliza) la base del usuario. La primera apertura puede renombrar archivos de la
+    // base anterior y consultar o borrar bases expulsadas: llamar fuera del hilo principal.
+    public synchronized AppDatabase open(String username) {
+        AppDatabase database = openDatabases.get(username);
+        if (database != null) {
+            return database;
+        }
+
+        String name = databaseNameFor(username);
+        boolean adoptedLegacy = adoptLegacyDatabase(name);
+
+        RoomDatabase.Builder<AppDatabase> builder = Room.databaseBuilder(context, AppDatabase.class, name)
+                .addMigrations(Migrations.ALL);
+        if (adoptedLegacy) {
+            builder.addCallback(new PruneOtherUsersCallback(username));
+        }
+
+        database = builder.build();
+        openDatabases.put(username, database);
+        Log.d(TAG, "Base de datos abierta para usuario: " + username + " (" + name + ")");
+
+        touch(name);
+        return database;
+    }
+
+    // El nombre de usuario es un correo; se usa un hash para obtener un nombre de archivo válido.
+    static String databaseNameFor(String username) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] hash = digest.digest(username.getBytes(StandardCharsets.UTF_8));
+            StringBuilder sb = new StringBuilder("backup_");
+            for (int i = 0; i < 16; i++) {
+                sb.append(Character.forDigit((hash[i] >> 4) & 0xF, 16));
+                sb.append(Character.forDigit(hash[i] & 0xF, 16));
+            }
+            return sb.append(".db").toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
+    }
+
+    // Expulsa desde la menos usada; las que no se pueden borrar siguen en la lista y se vuelven a
+    // considerar en la próxima apertura, aunque se supere maxRetained mientras tanto.
+    private void touch(String name) {
+        List<String> recent = readRecent();
+        recent.remove(name);
+        recent.add(0, name);
+
+        int excess = recent.size() - maxRetained;
+        for (int i = recent.size() - 1; i > 0 && excess > 0; i--) {
+            String candidate = recent.get(i);
+            if (isOpen(candidate) || hasUnsyncedData(candidate)) {
+                Log.d(TAG, "Base de datos conservada pese a superar el límite: " + candidate);
+                continue;
+            }
+            recent.remove(i);
+            excess--;
+            boolean deleted = context.deleteDatabase(candidate);
+            Log.d(TAG, "Base de datos expulsada: " + candidate + ", eliminada: " + deleted);
+        }
+
+        preferences.edit().putString(KEY_RECENT, String.join(SEPARATOR, recent)).apply();
+    }
+
+    private boolean isOpen(String name) {
+        for (String username : openDatabases.keySet()) {
+            if (databaseNameFor(username).equals(name)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Filas sin subir o escaneos aún sin validar: borrar el archivo los perdería. Ante cualquier
+    // error al leerla, la base se conserva.
+    private boolean hasUnsyncedData(String name) {
+        if (!context.getDatabasePath(name).exists()) {
+            return false;
+        }
+
+        AppDatabase database = Room.databaseBuilder(context, AppDatabase.class, name)
+                .addMigrations(Migrations.ALL)
+                .build();
+        try {
+            return database.backupDao().countDirty() > 0 || database.scanOutboxDao().countPending() > 0;
+        } catch (RuntimeException e) {
+            Log.e(TAG, "No se pudo revisar " + name + " antes de expulsarla", e);
+            return true;
+        } finally {
+            database.close();
+        }
+    }
+
+    private List<String> readRecent() {
+        String stored = preferences.getString(KEY_RECENT, "");
+        if (stored.isEmpty()) {
+            return new ArrayList<>();
+        }
+        return new ArrayList<>(Arrays.asList(stored.split(SEPARATOR)));
+    }
+
+    // La base compartida anterior pasa a ser la del primer usuario que abre sesión tras la
+    // actualización; las filas de otros usuarios se eliminan una sola vez al abrirla.
+    private boolean adoptLegacyDatabase(String name) {
+        File legacy = context.getDatabasePath(LEGACY_DATABASE_NAME);
+        if (!legacy.exists() || context.getDatabasePath(name).exists()) {
+            return false;
+        }
+
+        for (String suffix : new String[]{"", "-wal", "-shm", "-journal"}) {
+            File source = context.getDatabasePath(LEGACY_DATABASE_NAME + suffix);
+            if (source.exists() && !source.renameTo(context.getDatabasePath(name + suffix))) {
+                Log.e(TAG, "No se pudo adoptar " + source.getName() + ", se descarta la base anterior");
+                context.deleteDatabase(LEGACY_DATABASE_NAME);
+                context.deleteDatabase(name);
+                return false;
+            }
+        }
+
+        Log.d(TAG, "Base de datos anterior adoptada como " + name);
+        return true;
+    }
+
+    private static class PruneOtherUsersCallback extends RoomDatabase.Callback {
+        private final String username;
+
+        PruneOtherUsersCallback(String username) {
+            this.username = username;
+        }
+
+        @Override
+        public void onOpen(@NonNull SupportSQLiteDatabase db) {
+            db.execSQL("DELETE FROM backup_local WHERE username IS NULL OR username != ?",
+                    new Object[]{username});
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.svape.qr.coorapp.repository.local;
+
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.OnConflictStrategy;
+import androidx.room.Query;
+
+// Consultas síncronas: se llaman desde la validación de la bandeja, nunca desde el hilo principal.
+@Dao
+public interface ValidationCacheDao {
+    @Query("SELECT * FROM validation_cache WHERE digest = :digest AND cachedAt > :cutoff")
+    ValidationCacheEntity get(String digest, long cutoff);
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void put(ValidationCacheEntity entry);
+
+    // Vencidas y, de las vigentes, las que sobran tras las maxEntries más recientes.
+    @Query("DELETE FROM validation_cache WHERE cachedAt <= :cutoff OR digest NOT IN " +
+            "(SELECT digest FROM validation_cache ORDER BY cachedAt DESC LIMIT :maxEntries)")
+    int trim(long cutoff, int maxEntries);
+}
@@ -0,0 +1,58 @@
+package com.svape.qr.coorapp.repository.local;
+
+import androidx.annotation.NonNull;
+import androidx.room.Entity;
+import androidx.room.Index;
+import androidx.room.PrimaryKey;
+
+// Respuesta del servicio de validación para un payload, identificado por su SHA-256.
+@Entity(tableName = "validation_cache", indices = {@Index("cachedAt")})
+public class ValidationCacheEntity {
+    @PrimaryKey
+    @NonNull
+    private String digest;
+
+    private boolean correct;
+    private String data;
+    private long cachedAt;
+
+    public ValidationCacheEntity(@NonNull String digest, boolean correct, String data, long cachedAt) {
+        this.digest = digest;
+        this.correct = correct;
+        this.data = data;
+        this.cachedAt = cachedAt;
+    }
+
+    @NonNull
+    public String getDigest() {
+        return digest;
+    }
+
+    public void setDigest(@NonNull String digest) {
+        this.digest = digest;
+    }
+
+    public boolean isCorrect() {
+        return correct;
+    }
+
+    public void setCorrect(boolean correct) {
+        this.correct = correct;
+    }
+
+    public String getData() {
+        return data;
+    }
+
+    public void setData(String data) {
+        this.data = data;
+    }
+
+    public long getCachedAt() {
+        return cachedAt;
+    }
+
+    public void setCachedAt(long cachedAt) {
+        this.cachedAt = cachedAt;
+    }
+}
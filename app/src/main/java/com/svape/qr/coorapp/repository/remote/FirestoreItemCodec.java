@@ -0,0 +1,39 @@
+package com.svape.qr.coorapp.repository.remote;
+
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.svape.qr.coorapp.model.BackupItem;
+import com.svape.qr.coorapp.sync.BackupItemCodec;
+
+/**
+ * Lectura tipada de documentos {@code backup/{username}/items/{id}}: usa los getters de
+ * {@link DocumentSnapshot} en lugar de copiar el documento a un mapa y revisar cada valor.
+ */
+final class FirestoreItemCodec {
+
+    private FirestoreItemCodec() {
+    }
+
+    static BackupItem fromDocument(DocumentSnapshot document) {
+        String etiqueta = document.getString(BackupItemCodec.FIELD_ETIQUETA);
+        if (etiqueta == null) {
+            return null;
+        }
+
+        BackupItem item = new BackupItem(
+                etiqueta,
+                doubleOrZero(document.getDouble(BackupItemCodec.FIELD_LATITUD)),
+                doubleOrZero(document.getDouble(BackupItemCodec.FIELD_LONGITUD)),
+                document.getString(BackupItemCodec.FIELD_OBSERVACION)
+        );
+
+        Long updatedAt = document.getLong(BackupItemCodec.FIELD_UPDATED_AT);
+        item.setUpdatedAt(updatedAt != null ? updatedAt : 0);
+        item.setDeviceId(document.getString(BackupItemCodec.FIELD_DEVICE_ID));
+        item.setDeleted(document.getLong(BackupItemCodec.FIELD_DELETED_AT) != null);
+        return item;
+    }
+
+    private static double doubleOrZero(Double value) {
+        return value != null ? value : 0;
+    }
+}
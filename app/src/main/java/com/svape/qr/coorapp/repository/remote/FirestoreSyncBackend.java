@@ -0,0 +1,237 @@
+package com.svape.qr.coorapp.repository.remote;
+
+import android.util.Log;
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.firestore.CollectionReference;
+import com.google.firebase.firestore.DocumentReference;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FieldPath;
+import com.google.firebase.firestore.FieldValue;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.Query;
+import com.google.firebase.firestore.QuerySnapshot;
+import com.google.firebase.firestore.SetOptions;
+import com.google.firebase.firestore.WriteBatch;
+import com.svape.qr.coorapp.backend.BackendException;
+import com.svape.qr.coorapp.backend.RemoteMetadata;
+import com.svape.qr.coorapp.backend.RemotePage;
+import com.svape.qr.coorapp.backend.SyncBackend;
+import com.svape.qr.coorapp.model.BackupItem;
+import com.svape.qr.coorapp.sync.BackupItemCodec;
+import com.svape.qr.coorapp.util.Batches;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Backup en Firestore: metadatos en {@code backup/{username}} y un documento por etiqueta en
+ * {@code backup/{username}/items}. Las llamadas esperan la Task con {@link Tasks#await}, así
+ * que la respuesta se decodifica en el hilo que llama y nunca en el principal.
+ */
+public class FirestoreSyncBackend implements SyncBackend {
+    private static final String TAG = "FirestoreSyncBackend";
+    // Límite de operaciones de un WriteBatch de Firestore.
+    public static final int MAX_BATCH_OPS = 500;
+    private static final String COLLECTION_BACKUP = "backup";
+    private static final String COLLECTION_ITEMS = "items";
+    private static final String FIELD_LEGACY_ITEMS = "items";
+    private static final String FIELD_LAYOUT_VERSION = "layoutVersion";
+    private static final int LAYOUT_SUBCOLLECTION = 2;
+    private static final String FIELD_VERSION = "version";
+    private static final String FIELD_ITEM_COUNT = "itemCount";
+    private static final String FIELD_CONTENT_HASH = "contentHash";
+    private final FirebaseFirestore firestore;
+    private final Set<String> migratedUsers = ConcurrentHashMap.newKeySet();
+
+    public FirestoreSyncBackend(FirebaseFirestore firestore) {
+        this.firestore = firestore;
+    }
+
+    @Override
+    public RemoteMetadata fetchMetadata(String username) throws BackendException {
+        DocumentSnapshot parent = await(backupDocument(username).get());
+        migrateLegacyLayout(username, parent);
+
+        Long itemCount = parent.getLong(FIELD_ITEM_COUNT);
+        return new RemoteMetadata(versionOf(parent), parent.getString(FIELD_CONTENT_HASH),
+                itemCount != null ? itemCount.intValue() : 0);
+    }
+
+    @Override
+    public RemotePage fetchPage(String username, String afterId, int limit) throws BackendException {
+        Query query = itemsCollection(username)
+                .orderBy(FieldPath.documentId())
+                .limit(limit);
+        if (afterId != null) {
+            query = query.startAfter(afterId);
+        }
+
+        List<DocumentSnapshot> documents = await(query.get()).getDocuments();
+        List<BackupItem> items = new ArrayList<>(documents.size());
+        for (DocumentSnapshot document : documents) {
+            BackupItem item = FirestoreItemCodec.fromDocument(document);
+            if (item != null) {
+                items.add(item);
+            }
+        }
+        String lastId = documents.isEmpty() ? null : documents.get(documents.size() - 1).getId();
+        return new RemotePage(items, lastId, documents.size());
+    }
+
+    // Un documento por etiqueta, en lotes de hasta MAX_BATCH_OPS escrituras; cada lote también
+    // actualiza los metadatos del documento padre. La huella se retira hasta publishMetadata:
+    // si la subida se corta a medias, nadie omite la descarga creyendo el backup sin cambios.
+    @Override
+    public void putItems(String username, List<BackupItem> items, String date, String deviceId)
+            throws BackendException {
+        migrateLegacyLayout(username);
+
+        Map<String, Object> metadata = new HashMap<>();
+        metadata.put("username", username);
+        metadata.put("date", date);
+        metadata.put("deviceId", deviceId);
+        metadata.put("timestamp", System.currentTimeMillis());
+        metadata.put(FIELD_LAYOUT_VERSION, LAYOUT_SUBCOLLECTION);
+        metadata.put(FIELD_CONTENT_HASH, FieldValue.delete());
+
+        for (List<BackupItem> chunk : Batches.partition(items, MAX_BATCH_OPS - 1)) {
+            WriteBatch batch = firestore.batch();
+            for (BackupItem item : chunk) {
+                batch.set(itemDocument(username, item.getEtiqueta1d()), BackupItemCodec.toMap(item));
+            }
+            batch.set(backupDocument(username), metadata, SetOptions.merge());
+            await(batch.commit());
+        }
+        Log.d(TAG, "Subidos " + items.size() + " elementos a Firebase para usuario: " + username);
+    }
+
+    @Override
+    public long publishMetadata(String username, long expectedVersion, String contentHash, int itemCount)
+            throws BackendException {
+        return await(firestore.runTransaction(transaction -> {
+            DocumentSnapshot parent = transaction.get(backupDocument(username));
+            long current = versionOf(parent);
+            boolean wasInSync = current == expectedVersion;
+
+            Map<String, Object> metadata = new HashMap<>();
+            metadata.put(FIELD_VERSION, current + 1);
+            metadata.put(FIELD_ITEM_COUNT, wasInSync ? itemCount : FieldValue.delete());
+            metadata.put(FIELD_CONTENT_HASH, wasInSync ? contentHash : FieldValue.delete());
+            transaction.set(backupDocument(username), metadata, SetOptions.merge());
+            return wasInSync ? current + 1 : -1L;
+        }));
+    }
+
+    @Override
+    public int purgeTombstones(String username, long cutoff) throws BackendException {
+        QuerySnapshot expired = await(itemsCollection(username)
+                .whereLessThan(BackupItemCodec.FIELD_DELETED_AT, cutoff)
+                .get());
+        deleteDocuments(expired.getDocuments());
+        return expired.size();
+    }
+
+    // Firestore no borra subcolecciones al borrar el padre: primero los items, página a página
+    // para no cargar el backup completo en memoria. Cada página borrada deja de aparecer, así
+    // que la consulta siguiente vuelve a empezar desde el principio.
+    @Override
+    public void deleteBackup(String username) throws BackendException {
+        Query firstPage = itemsCollection(username)
+                .orderBy(FieldPath.documentId())
+                .limit(MAX_BATCH_OPS);
+        while (true) {
+            List<DocumentSnapshot> documents = await(firstPage.get()).getDocuments();
+            deleteDocuments(documents);
+            if (documents.size() < MAX_BATCH_OPS) {
+                break;
+            }
+        }
+        await(backupDocument(username).delete());
+        migratedUsers.remove(username);
+    }
+
+    private void deleteDocuments(List<DocumentSnapshot> documents) throws BackendException {
+        for (List<DocumentSnapshot> chunk : Batches.partition(documents, MAX_BATCH_OPS)) {
+            WriteBatch batch = firestore.batch();
+            for (DocumentSnapshot document : chunk) {
+                batch.delete(document.getReference());
+            }
+            await(batch.commit());
+        }
+    }
+
+    // Migración única del arreglo "items" del documento padre a la subcolección. El arreglo se
+    // elimina al final, así que si falla a mitad se reintenta completa en la siguiente llamada.
+    private void migrateLegacyLayout(String username) throws BackendException {
+        if (!migratedUsers.contains(username)) {
+            migrateLegacyLayout(username, await(backupDocument(username).get()));
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void migrateLegacyLayout(String username, DocumentSnapshot document) throws BackendException {
+        Long layoutVersion = document.getLong(FIELD_LAYOUT_VERSION);
+        Object legacy = document.get(FIELD_LEGACY_ITEMS);
+        if ((layoutVersion != null && layoutVersion >= LAYOUT_SUBCOLLECTION) || !(legacy instanceof List)) {
+            migratedUsers.add(username);
+            return;
+        }
+
+        // El arreglo puede repetir etiquetas; gana la última entrada.
+        Map<String, BackupItem> byId = new LinkedHashMap<>();
+        for (BackupItem item : BackupItemCodec.fromMaps((List<Map<String, Object>>) legacy)) {
+            byId.put(BackupItemCodec.documentIdFor(item.getEtiqueta1d()), item);
+        }
+        List<BackupItem> items = new ArrayList<>(byId.values());
+        Log.d(TAG, "Migrando " + items.size() + " elementos del formato anterior para usuario: " + username);
+
+        for (List<BackupItem> chunk : Batches.partition(items, MAX_BATCH_OPS)) {
+            WriteBatch batch = firestore.batch();
+            for (BackupItem item : chunk) {
+                batch.set(itemDocument(username, item.getEtiqueta1d()), BackupItemCodec.toMap(item));
+            }
+            await(batch.commit());
+        }
+
+        Map<String, Object> done = new HashMap<>();
+        done.put(FIELD_LAYOUT_VERSION, LAYOUT_SUBCOLLECTION);
+        done.put(FIELD_LEGACY_ITEMS, FieldValue.delete());
+        await(backupDocument(username).set(done, SetOptions.merge()));
+        migratedUsers.add(username);
+    }
+
+    private static long versionOf(DocumentSnapshot parent) {
+        Long version = parent.getLong(FIELD_VERSION);
+        return version != null ? version : 0;
+    }
+
+    private DocumentReference backupDocument(String username) {
+        return firestore.collection(COLLECTION_BACKUP).document(username);
+    }
+
+    private CollectionReference itemsCollection(String username) {
+        return backupDocument(username).collection(COLLECTION_ITEMS);
+    }
+
+    private DocumentReference itemDocument(String username, String etiqueta) {
+        return itemsCollection(username).document(BackupItemCodec.documentIdFor(etiqueta));
+    }
+
+    static <T> T await(Task<T> task) throws BackendException {
+        try {
+            return Tasks.await(task);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            throw new BackendException(cause.getMessage(), cause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BackendException("Llamada a Firestore interrumpida", e);
+        }
+    }
+}
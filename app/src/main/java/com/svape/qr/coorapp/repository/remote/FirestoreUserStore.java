@@ -0,0 +1,40 @@
+package com.svape.qr.coorapp.repository.remote;
+
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.svape.qr.coorapp.backend.BackendException;
+import com.svape.qr.coorapp.backend.UserStore;
+import java.util.HashMap;
+import java.util.Map;
+
+// Cuentas en la colección Usuarios de Firestore.
+public class FirestoreUserStore implements UserStore {
+    private static final String COLLECTION_USERS = "Usuarios";
+    private final FirebaseFirestore firestore;
+
+    public FirestoreUserStore(FirebaseFirestore firestore) {
+        this.firestore = firestore;
+    }
+
+    @Override
+    public boolean validateUser(String username, String password) throws BackendException {
+        return !FirestoreSyncBackend.await(firestore.collection(COLLECTION_USERS)
+                .whereEqualTo("username", username)
+                .whereEqualTo("password", password)
+                .get()).isEmpty();
+    }
+
+    @Override
+    public boolean usernameExists(String username) throws BackendException {
+        return !FirestoreSyncBackend.await(firestore.collection(COLLECTION_USERS)
+                .whereEqualTo("username", username)
+                .get()).isEmpty();
+    }
+
+    @Override
+    public void registerUser(String username, String password) throws BackendException {
+        Map<String, Object> user = new HashMap<>();
+        user.put("username", username);
+        user.put("password", password);
+        FirestoreSyncBackend.await(firestore.collection(COLLECTION_USERS).add(user));
+    }
+}
@@ -1,7 +1,9 @@
 package com.svape.qr.coorapp.service;
 
+import com.android.volley.NetworkError;
 import com.android.volley.Request;
 import com.android.volley.RequestQueue;
+import com.android.volley.TimeoutError;
 import com.android.volley.toolbox.JsonObjectRequest;
 import com.svape.qr.coorapp.model.ApiResponse;
 import org.json.JSONException;
@@ -10,13 +12,30 @@ import io.reactivex.rxjava3.core.Single;
 
 public class ApiService {
     private static final String API_ENDPOINT = "https://noderedtest.coordinadora.com/api/v1/validar";
+    // Variante por lotes del mismo contrato (ver BatchingValidationClient).
+    public static final String BATCH_ENDPOINT = API_ENDPOINT + "/lote";
     private final RequestQueue requestQueue;
+    private final BatchingValidationClient batchClient;
 
     public ApiService(RequestQueue requestQueue) {
+        this(requestQueue, null);
+    }
+
+    // Con batchClient cada validación viaja dentro de un lote en lugar de en su propia petición.
+    public ApiService(RequestQueue requestQueue, BatchingValidationClient batchClient) {
         this.requestQueue = requestQueue;
+        this.batchClient = batchClient;
+    }
+
+    public boolean isBatching() {
+        return batchClient != null;
     }
 
     public Single<ApiResponse> validateData(String base64Data) {
+        if (batchClient != null) {
+            return batchClient.validate(base64Data);
+        }
+
         return Single.create(emitter -> {
             try {
                 JSONObject jsonBody = new JSONObject();
@@ -28,12 +47,7 @@ public class ApiService {
                         jsonBody,
                         response -> {
                             try {
-                                String correcto = response.getString("Correcto");
-                                String data = response.getString("data");
-                                boolean isCorrect = "estructura Correcta".equals(correcto);
-
-                                ApiResponse apiResponse = new ApiResponse(isCorrect, data);
-                                emitter.onSuccess(apiResponse);
+                                emitter.onSuccess(parseResponse(response));
                             } catch (JSONException e) {
                                 emitter.onError(e);
                             }
@@ -47,4 +61,16 @@ public class ApiService {
             }
         });
     }
-}
\ No newline at end of file
+
+    static ApiResponse parseResponse(JSONObject response) throws JSONException {
+        String correcto = response.getString("Correcto");
+        String data = response.getString("data");
+        boolean isCorrect = "estructura Correcta".equals(correcto);
+        return new ApiResponse(isCorrect, data);
+    }
+
+    // Sin red o sin respuesta: el mismo payload puede validarse más tarde.
+    public static boolean isConnectivityError(Throwable error) {
+        return error instanceof NetworkError || error instanceof TimeoutError;
+    }
+}
@@ -0,0 +1,183 @@
+package com.svape.qr.coorapp.service;
+
+import android.util.Log;
+import com.svape.qr.coorapp.model.ApiResponse;
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import io.reactivex.rxjava3.core.Scheduler;
+import io.reactivex.rxjava3.core.Single;
+import io.reactivex.rxjava3.core.SingleEmitter;
+import io.reactivex.rxjava3.disposables.Disposable;
+import io.reactivex.rxjava3.observers.DisposableSingleObserver;
+
+/**
+ * Junta las validaciones que llegan dentro de una ventana de windowMillis, o hasta maxItems, en
+ * una sola petición a la variante por lotes de /api/v1/validar:
+ * {@code {"items":[{"data":"<base64>"}, ...]}} responde
+ * {@code {"resultados":[{"Correcto":"...","data":"..."}, ...]}} en el mismo orden. Cada
+ * llamador recibe su resultado; si la petición falla, todos los del lote reciben el error.
+ */
+public class BatchingValidationClient {
+    private static final String TAG = "BatchingValidation";
+    private final ValidationTransport transport;
+    private final String url;
+    private final int maxItems;
+    private final long windowMillis;
+    private final Scheduler scheduler;
+
+    private final Object lock = new Object();
+    private List<Pending> pending = new ArrayList<>();
+    private Disposable window;
+
+    public BatchingValidationClient(ValidationTransport transport, String url, int maxItems,
+                                    long windowMillis, Scheduler scheduler) {
+        if (maxItems < 1) {
+            throw new IllegalArgumentException("maxItems debe ser positivo");
+        }
+        this.transport = transport;
+        this.url = url;
+        this.maxItems = maxItems;
+        this.windowMillis = windowMillis;
+        this.scheduler = scheduler;
+    }
+
+    public Single<ApiResponse> validate(String base64Data) {
+        return Single.create(emitter -> enqueue(new Pending(base64Data, emitter)));
+    }
+
+    private void enqueue(Pending item) {
+        List<Pending> ready = null;
+        synchronized (lock) {
+            pending.add(item);
+            if (pending.size() >= maxItems) {
+                ready = takePending();
+            } else if (pending.size() == 1) {
+                window = scheduler.scheduleDirect(this::flushWindow, windowMillis, TimeUnit.MILLISECONDS);
+            }
+        }
+        if (ready != null) {
+            send(ready);
+        }
+    }
+
+    private void flushWindow() {
+        List<Pending> ready;
+        synchronized (lock) {
+            if (pending.isEmpty()) {
+                return;
+            }
+            ready = takePending();
+        }
+        send(ready);
+    }
+
+    // Llamar con lock tomado.
+    private List<Pending> takePending() {
+        if (window != null) {
+            window.dispose();
+            window = null;
+        }
+        List<Pending> batch = pending;
+        pending = new ArrayList<>();
+        return batch;
+    }
+
+    // Los llamadores que ya se desuscribieron no viajan. La petición queda ligada a los que
+    // siguen esperando: cuando el último se desuscribe, se cancela.
+    private void send(List<Pending> batch) {
+        List<Pending> live = new ArrayList<>(batch.size());
+        for (Pending item : batch) {
+            if (!item.emitter.isDisposed()) {
+                live.add(item);
+            }
+        }
+        if (live.isEmpty()) {
+            return;
+        }
+
+        JSONObject body = new JSONObject();
+        try {
+            JSONArray items = new JSONArray();
+            for (Pending item : live) {
+                items.put(new JSONObject().put("data", item.data));
+            }
+            body.put("items", items);
+        } catch (JSONException e) {
+            fail(live, e);
+            return;
+        }
+
+        DisposableSingleObserver<JSONObject> request = new DisposableSingleObserver<JSONObject>() {
+            @Override
+            public void onSuccess(JSONObject response) {
+                dispatch(live, response);
+            }
+
+            @Override
+            public void onError(Throwable error) {
+                fail(live, error);
+            }
+        };
+        for (Pending item : live) {
+            item.emitter.setCancellable(() -> cancelIfAbandoned(live, request));
+        }
+
+        Log.d(TAG, "Validando lote de " + live.size() + " escaneos");
+        transport.post(url, body).subscribe(request);
+    }
+
+    private static void cancelIfAbandoned(List<Pending> batch, Disposable request) {
+        for (Pending item : batch) {
+            if (!item.emitter.isDisposed()) {
+                return;
+            }
+        }
+        request.dispose();
+    }
+
+    private void dispatch(List<Pending> batch, JSONObject response) {
+        List<ApiResponse> results = new ArrayList<>(batch.size());
+        try {
+            JSONArray resultados = response.getJSONArray("resultados");
+            if (resultados.length() != batch.size()) {
+                throw new JSONException("Se esperaban " + batch.size() + " resultados y llegaron "
+                        + resultados.length());
+            }
+            for (int i = 0; i < resultados.length(); i++) {
+                results.add(ApiService.parseResponse(resultados.getJSONObject(i)));
+            }
+        } catch (JSONException e) {
+            fail(batch, e);
+            return;
+        }
+
+        for (int i = 0; i < batch.size(); i++) {
+            SingleEmitter<ApiResponse> emitter = batch.get(i).emitter;
+            if (!emitter.isDisposed()) {
+                emitter.onSuccess(results.get(i));
+            }
+        }
+    }
+
+    // tryOnError: quien ya se desuscribió no recibe el error ni lo manda a RxJavaPlugins.
+    private void fail(List<Pending> batch, Throwable error) {
+        Log.e(TAG, "Error validando lote de " + batch.size() + " escaneos", error);
+        for (Pending item : batch) {
+            item.emitter.tryOnError(error);
+        }
+    }
+
+    private static final class Pending {
+        final String data;
+        final SingleEmitter<ApiResponse> emitter;
+
+        Pending(String data, SingleEmitter<ApiResponse> emitter) {
+            this.data = data;
+            this.emitter = emitter;
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.svape.qr.coorapp.service;
+
+import com.svape.qr.coorapp.model.ApiResponse;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReference;
+import io.reactivex.rxjava3.core.Single;
+
+/**
+ * Delante de {@link ApiService#validateData(String)}: quien pide validar un payload que ya está
+ * en camino se suma a esa petición en lugar de lanzar otra. El resultado, o el error, llega a
+ * todos; al terminar la petición el payload se libera y el siguiente pedido vuelve a la red.
+ */
+public class ValidationCoalescer {
+    private final ApiService apiService;
+    private final ConcurrentMap<String, Single<ApiResponse>> inFlight = new ConcurrentHashMap<>();
+
+    public ValidationCoalescer(ApiService apiService) {
+        this.apiService = apiService;
+    }
+
+    public Single<ApiResponse> validate(String base64Data) {
+        return Single.defer(() -> inFlight.computeIfAbsent(base64Data, this::request));
+    }
+
+    // cache() mantiene la petición aunque se desuscriba quien la inició; los demás la esperan.
+    // La entrada se quita antes de entregar el resultado (quien reintenta desde el callback de
+    // error ya lanza otra petición) y solo si sigue siendo esta, para no quitar una posterior.
+    private Single<ApiResponse> request(String base64Data) {
+        AtomicReference<Single<ApiResponse>> self = new AtomicReference<>();
+        Single<ApiResponse> shared = apiService.validateData(base64Data)
+                .doOnTerminate(() -> inFlight.remove(base64Data, self.get()))
+                .cache();
+        self.set(shared);
+        return shared;
+    }
+
+    int inFlightCount() {
+        return inFlight.size();
+    }
+}
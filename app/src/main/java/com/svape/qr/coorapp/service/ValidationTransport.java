@@ -0,0 +1,9 @@
+package com.svape.qr.coorapp.service;
+
+import org.json.JSONObject;
+import io.reactivex.rxjava3.core.Single;
+
+// POST de un cuerpo JSON al servicio de validación; separa el cliente por lotes de Volley.
+public interface ValidationTransport {
+    Single<JSONObject> post(String url, JSONObject body);
+}
@@ -0,0 +1,35 @@
+package com.svape.qr.coorapp.service;
+
+import com.android.volley.DefaultRetryPolicy;
+import com.android.volley.Request;
+import com.android.volley.RequestQueue;
+import com.android.volley.toolbox.JsonObjectRequest;
+import org.json.JSONObject;
+import io.reactivex.rxjava3.core.Single;
+
+public class VolleyValidationTransport implements ValidationTransport {
+    // Un lote tarda más que un escaneo suelto en validarse del lado del servidor.
+    private static final int TIMEOUT_MILLIS = 10_000;
+    private final RequestQueue requestQueue;
+
+    public VolleyValidationTransport(RequestQueue requestQueue) {
+        this.requestQueue = requestQueue;
+    }
+
+    @Override
+    public Single<JSONObject> post(String url, JSONObject body) {
+        return Single.create(emitter -> {
+            JsonObjectRequest request = new JsonObjectRequest(
+                    Request.Method.POST,
+                    url,
+                    body,
+                    emitter::onSuccess,
+                    emitter::onError
+            );
+            request.setRetryPolicy(new DefaultRetryPolicy(TIMEOUT_MILLIS,
+                    DefaultRetryPolicy.DEFAULT_MAX_RETRIES, DefaultRetryPolicy.DEFAULT_BACKOFF_MULT));
+            emitter.setCancellable(request::cancel);
+            requestQueue.add(request);
+        });
+    }
+}
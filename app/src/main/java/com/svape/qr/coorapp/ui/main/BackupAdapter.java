@@ -3,22 +3,46 @@ package com.svape.qr.coorapp.ui.main;
 import android.view.LayoutInflater;
 import android.view.ViewGroup;
 import androidx.annotation.NonNull;
+import androidx.paging.PagingDataAdapter;
+import androidx.recyclerview.widget.DiffUtil;
 import androidx.recyclerview.widget.RecyclerView;
 import com.svape.qr.coorapp.databinding.ItemBackupBinding;
 import com.svape.qr.coorapp.model.BackupItem;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Objects;
 
-public class BackupAdapter extends RecyclerView.Adapter<BackupAdapter.BackupViewHolder> {
-    private List<BackupItem> items = new ArrayList<>();
+public class BackupAdapter extends PagingDataAdapter<BackupItem, BackupAdapter.BackupViewHolder> {
     private final OnMapClickListener mapClickListener;
+    private final OnItemLongClickListener longClickListener;
 
     public interface OnMapClickListener {
         void onMapClick(BackupItem item);
     }
 
-    public BackupAdapter(OnMapClickListener mapClickListener) {
+    public interface OnItemLongClickListener {
+        void onItemLongClick(BackupItem item);
+    }
+
+    // PagingDataAdapter no admite setHasStableIds; la identidad estable es la clave primaria
+    // de Room y el diff corre en el hilo de trabajo del AsyncPagingDataDiffer.
+    static final DiffUtil.ItemCallback<BackupItem> DIFF_CALLBACK = new DiffUtil.ItemCallback<BackupItem>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull BackupItem oldItem, @NonNull BackupItem newItem) {
+            return oldItem.getId() == newItem.getId();
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull BackupItem oldItem, @NonNull BackupItem newItem) {
+            return Objects.equals(oldItem.getEtiqueta1d(), newItem.getEtiqueta1d())
+                    && oldItem.getLatitud() == newItem.getLatitud()
+                    && oldItem.getLongitud() == newItem.getLongitud()
+                    && Objects.equals(oldItem.getObservacion(), newItem.getObservacion());
+        }
+    };
+
+    public BackupAdapter(OnMapClickListener mapClickListener, OnItemLongClickListener longClickListener) {
+        super(DIFF_CALLBACK);
         this.mapClickListener = mapClickListener;
+        this.longClickListener = longClickListener;
     }
 
     @NonNull
@@ -31,33 +55,38 @@ public class BackupAdapter extends RecyclerView.Adapter<BackupAdapter.BackupView
 
     @Override
     public void onBindViewHolder(@NonNull BackupViewHolder holder, int position) {
-        holder.bind(items.get(position));
-    }
-
-    @Override
-    public int getItemCount() {
-        return items.size();
-    }
-
-    public void setItems(List<BackupItem> items) {
-        this.items = items;
-        notifyDataSetChanged();
+        BackupItem item = getItem(position);
+        if (item != null) {
+            holder.bind(item);
+        }
     }
 
     class BackupViewHolder extends RecyclerView.ViewHolder {
         private final ItemBackupBinding binding;
+        private BackupItem item;
 
         BackupViewHolder(ItemBackupBinding binding) {
             super(binding.getRoot());
             this.binding = binding;
+
+            binding.mapButton.setOnClickListener(v -> {
+                if (item != null) {
+                    mapClickListener.onMapClick(item);
+                }
+            });
+            binding.getRoot().setOnLongClickListener(v -> {
+                if (item == null) {
+                    return false;
+                }
+                longClickListener.onItemLongClick(item);
+                return true;
+            });
         }
 
         void bind(BackupItem item) {
-            binding.etiquetaTextView.setText("etiqueta1d: " + item.getEtiqueta1d());
+            this.item = item;
+            binding.etiquetaTextView.setText(item.getEtiqueta1d());
             binding.observacionTextView.setText(item.getObservacion());
-
-            binding.mapButton.setOnClickListener(v ->
-                    mapClickListener.onMapClick(item));
         }
     }
-}
\ No newline at end of file
+}
@@ -35,11 +35,15 @@ import com.svape.qr.coorapp.model.BackupItem;
 import com.svape.qr.coorapp.ui.login.LoginActivity;
 import com.svape.qr.coorapp.ui.map.MapActivity;
 import com.svape.qr.coorapp.util.NetworkUtils;
+import com.svape.qr.coorapp.util.Resource;
 import com.svape.qr.coorapp.util.SessionManager;
 
 import javax.inject.Inject;
+import io.reactivex.rxjava3.android.schedulers.AndroidSchedulers;
+import io.reactivex.rxjava3.disposables.Disposable;
 
-public class MainActivity extends AppCompatActivity implements BackupAdapter.OnMapClickListener {
+public class MainActivity extends AppCompatActivity implements BackupAdapter.OnMapClickListener,
+        BackupAdapter.OnItemLongClickListener {
     private static final String TAG = "MainActivity";
     private static final int PERMISSION_REQUEST_CAMERA = 100;
 
@@ -54,6 +58,7 @@ public class MainActivity extends AppCompatActivity implements BackupAdapter.OnM
     private BackupAdapter adapter;
     private CodeScanner codeScanner;
     private RotateAnimation rotateAnimation;
+    private Disposable pagedItemsDisposable;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -69,11 +74,6 @@ public class MainActivity extends AppCompatActivity implements BackupAdapter.OnM
 
         viewModel = new ViewModelProvider(this, viewModelFactory).get(MainViewModel.class);
 
-
-        if (sessionManager.isLoggedIn()) {
-            viewModel.verifyLocalData();
-        }
-
         if (!sessionManager.isLoggedIn()) {
             navigateToLogin();
             return;
@@ -102,7 +102,7 @@ public class MainActivity extends AppCompatActivity implements BackupAdapter.OnM
     }
 
     private void setupRecyclerView() {
-        adapter = new BackupAdapter(this);
+        adapter = new BackupAdapter(this, this);
         binding.recyclerView.setLayoutManager(new LinearLayoutManager(this));
         binding.recyclerView.setAdapter(adapter);
     }
@@ -184,14 +184,12 @@ public class MainActivity extends AppCompatActivity implements BackupAdapter.OnM
     }
 
     private void observeViewModel() {
-        viewModel.getBackupItems().observe(this, items -> {
-            Log.d(TAG, "BackupItems actualizados, cantidad: " + items.size());
-            adapter.setItems(items);
-
-            if (items.isEmpty()) {
-                Log.d(TAG, "No hay elementos para mostrar");
-            }
-        });
+        pagedItemsDisposable = viewModel.getPagedBackupItems()
+                .observeOn(AndroidSchedulers.mainThread())
+                .subscribe(
+                        pagingData -> adapter.submitData(getLifecycle(), pagingData),
+                        error -> Log.e(TAG, "Error cargando elementos paginados", error)
+                );
 
         viewModel.getProcessQrResult().observe(this, result -> {
             switch (result.status) {
@@ -213,6 +211,14 @@ public class MainActivity extends AppCompatActivity implements BackupAdapter.OnM
             }
         });
 
+        viewModel.getDeleteResult().observe(this, result -> {
+            if (result.status == Resource.Status.SUCCESS && result.data != null) {
+                Snackbar.make(binding.getRoot(), result.data, Snackbar.LENGTH_SHORT).show();
+            } else if (result.status == Resource.Status.ERROR && result.message != null) {
+                Snackbar.make(binding.getRoot(), result.message, Snackbar.LENGTH_LONG).show();
+            }
+        });
+
         viewModel.getLogoutResult().observe(this, result -> {
             switch (result.status) {
                 case LOADING:
@@ -375,12 +381,8 @@ public class MainActivity extends AppCompatActivity implements BackupAdapter.OnM
             return;
         }
 
-        if (NetworkUtils.isNetworkAvailable(this)) {
-            viewModel.syncAllItems();
-        } else {
-            Log.d(TAG, "No hay conexión a internet. No se intentará sincronizar en onResume.");
-            viewModel.loadBackupItems();
-        }
+        // WorkManager espera a tener red; sin conexión se siguen mostrando los datos locales.
+        viewModel.requestSyncOnOpen();
 
         if (binding.cameraContainer.getVisibility() == View.VISIBLE && hasCameraPermission()) {
             codeScanner.startPreview();
@@ -395,6 +397,14 @@ public class MainActivity extends AppCompatActivity implements BackupAdapter.OnM
         super.onPause();
     }
 
+    @Override
+    protected void onDestroy() {
+        if (pagedItemsDisposable != null) {
+            pagedItemsDisposable.dispose();
+        }
+        super.onDestroy();
+    }
+
     @Override
     public void onMapClick(BackupItem item) {
         Log.d(TAG, "Click en mapa para item - Etiqueta: " + item.getEtiqueta1d() +
@@ -408,6 +418,16 @@ public class MainActivity extends AppCompatActivity implements BackupAdapter.OnM
         startActivity(intent);
     }
 
+    @Override
+    public void onItemLongClick(BackupItem item) {
+        new AlertDialog.Builder(this)
+                .setTitle(R.string.delete_item_title)
+                .setMessage(getString(R.string.delete_item_message, item.getEtiqueta1d()))
+                .setPositiveButton(R.string.delete, (dialog, which) -> viewModel.deleteItem(item))
+                .setNegativeButton(R.string.cancel, (dialog, which) -> dialog.dismiss())
+                .show();
+    }
+
     private void navigateToLogin() {
         Intent intent = new Intent(this, LoginActivity.class);
         intent.addFlags(Intent.FLAG_ACTIVITY_CLEAR_TOP | Intent.FLAG_ACTIVITY_NEW_TASK);
@@ -4,8 +4,14 @@ import android.content.Context;
 import android.util.Base64;
 import android.util.Log;
 import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MediatorLiveData;
 import androidx.lifecycle.MutableLiveData;
 import androidx.lifecycle.ViewModel;
+import androidx.lifecycle.ViewModelKt;
+import androidx.paging.PagingData;
+import androidx.paging.rxjava3.PagingRx;
+import androidx.work.WorkInfo;
+import com.svape.qr.coorapp.R;
 import com.svape.qr.coorapp.model.BackupItem;
 import com.svape.qr.coorapp.repository.BackupRepository;
 import com.svape.qr.coorapp.util.DataParser;
@@ -13,18 +19,16 @@ import com.svape.qr.coorapp.util.DeviceInfoHelper;
 import com.svape.qr.coorapp.util.NetworkUtils;
 import com.svape.qr.coorapp.util.Resource;
 import com.svape.qr.coorapp.util.SessionManager;
-import java.text.SimpleDateFormat;
-import java.util.ArrayList;
-import java.util.Date;
+import com.svape.qr.coorapp.work.OutboxDrainWorker;
+import com.svape.qr.coorapp.work.SyncScheduler;
+import com.svape.qr.coorapp.work.SyncWorker;
 import java.util.HashSet;
 import java.util.List;
-import java.util.Locale;
 import java.util.Set;
-import java.util.concurrent.TimeUnit;
+import java.util.UUID;
 import javax.inject.Inject;
 import io.reactivex.rxjava3.android.schedulers.AndroidSchedulers;
-import io.reactivex.rxjava3.core.Completable;
-import io.reactivex.rxjava3.core.Single;
+import io.reactivex.rxjava3.core.Flowable;
 import io.reactivex.rxjava3.disposables.CompositeDisposable;
 import io.reactivex.rxjava3.schedulers.Schedulers;
 
@@ -34,24 +38,34 @@ public class MainViewModel extends ViewModel {
     private final BackupRepository backupRepository;
     private final DeviceInfoHelper deviceInfoHelper;
     private final SessionManager sessionManager;
+    private final SyncScheduler syncScheduler;
     private final Context context;
-    private final MutableLiveData<List<BackupItem>> backupItems = new MutableLiveData<>();
-    private final MutableLiveData<Resource<String>> processQrResult = new MutableLiveData<>();
+    private final MediatorLiveData<Resource<String>> processQrResult = new MediatorLiveData<>();
     private final MutableLiveData<Resource<Boolean>> logoutResult = new MutableLiveData<>();
-    private final MutableLiveData<Resource<Boolean>> syncResult = new MutableLiveData<>();
+    private final MediatorLiveData<Resource<Boolean>> syncResult = new MediatorLiveData<>();
+    private final MutableLiveData<Resource<String>> deleteResult = new MutableLiveData<>();
 
     private final CompositeDisposable disposables = new CompositeDisposable();
 
-    private boolean isSyncing = false;
+    private Flowable<PagingData<BackupItem>> pagedBackupItems;
+
+    // Vaciados de la bandeja cuyo resultado ya se notificó.
+    private final Set<UUID> reportedDrains = new HashSet<>();
+
+    // Sincronización visible que se vio encolada o en curso; solo su resultado se notifica.
+    private UUID visibleSyncId;
 
     @Inject
     public MainViewModel(BackupRepository backupRepository, DeviceInfoHelper deviceInfoHelper,
-                         SessionManager sessionManager, Context context) {
+                         SessionManager sessionManager, SyncScheduler syncScheduler, Context context) {
         this.backupRepository = backupRepository;
         this.deviceInfoHelper = deviceInfoHelper;
         this.sessionManager = sessionManager;
+        this.syncScheduler = syncScheduler;
         this.context = context;
 
+        syncResult.addSource(syncScheduler.observeSync(), this::onSyncWorkChanged);
+        processQrResult.addSource(syncScheduler.observeOutboxDrain(), this::onOutboxDrainChanged);
         checkUserChange();
     }
 
@@ -62,34 +76,7 @@ public class MainViewModel extends ViewModel {
             Log.d(TAG, "Detectado cambio de usuario: " + lastUser + " -> " + currentUser);
 
             clearPreviousUserData();
-        } else {
-            String username = sessionManager.getUsername();
-            if (username.isEmpty()) {
-                Log.e(TAG, "Error: No hay usuario autenticado");
-                return;
-            }
-
-            Log.d(TAG, "Cargando datos locales para usuario: " + username);
-            loadUserData();
-
-            if (NetworkUtils.isNetworkAvailable(context)) {
-                Log.d(TAG, "Intentando cargar datos desde Firebase para usuario: " + username);
-                loadFromFirebase();
-            } else {
-                Log.d(TAG, "Sin conexión a internet, usando solamente datos locales para usuario: " + username);
-            }
-        }
-    }
-
-    private void loadUserData() {
-        String username = sessionManager.getUsername();
-        if (username.isEmpty()) {
-            Log.e(TAG, "Error: No hay usuario autenticado");
-            return;
         }
-
-        Log.d(TAG, "Cargando datos para usuario: " + username);
-        loadBackupItemsForUser(username);
     }
 
     public void clearPreviousUserData() {
@@ -100,309 +87,83 @@ public class MainViewModel extends ViewModel {
             return;
         }
 
+        // Cada usuario tiene su propio archivo de base de datos: no hay nada que borrar,
+        // solo se abre el del usuario actual.
         disposables.add(
-                backupRepository.deleteAllExceptUser(currentUser)
+                backupRepository.switchUser(currentUser)
                         .subscribeOn(Schedulers.io())
                         .observeOn(AndroidSchedulers.mainThread())
                         .subscribe(
                                 () -> {
-                                    Log.d(TAG, "Datos de usuarios anteriores eliminados correctamente");
+                                    Log.d(TAG, "Base de datos local cambiada al usuario: " + currentUser);
                                     sessionManager.setLastUsername(currentUser);
-                                    loadUserData();
-                                },
-                                error -> {
-                                    Log.e(TAG, "Error al eliminar datos de usuarios anteriores", error);
-                                    loadUserData();
-                                }
-                        )
-        );
-    }
-
-    public void loadBackupItemsForUser(String username) {
-        disposables.add(
-                backupRepository.getAllBackupItemsForUser(username)
-                        .subscribeOn(Schedulers.io())
-                        .observeOn(AndroidSchedulers.mainThread())
-                        .subscribe(
-                                items -> {
-                                    Log.d(TAG, "Cargados " + items.size() + " elementos para el usuario: " + username);
-                                    for (BackupItem item : items) {
-                                        Log.d(TAG, "Item local cargado: " + item.getEtiqueta1d());
-                                    }
-                                    backupItems.setValue(items);
                                 },
-                                error -> Log.e(TAG, "Error loading backup items for user: " + username, error)
+                                error -> Log.e(TAG, "Error al cambiar la base de datos del usuario", error)
                         )
         );
     }
 
-
-    public void loadBackupItems() {
-        String username = sessionManager.getUsername();
-        if (username.isEmpty()) {
-            disposables.add(
-                    backupRepository.getAllBackupItems()
-                            .subscribeOn(Schedulers.io())
-                            .observeOn(AndroidSchedulers.mainThread())
-                            .subscribe(
-                                    items -> backupItems.setValue(items),
-                                    error -> Log.e(TAG, "Error loading backup items", error)
-                            )
-            );
-        } else {
-            loadBackupItemsForUser(username);
-        }
-    }
-
-    public void loadFromFirebase() {
-        Context context = deviceInfoHelper.getContext();
-        if (!NetworkUtils.isNetworkAvailable(context)) {
-            Log.d(TAG, "No hay conexión a internet. Cancelando sincronización.");
-            syncResult.setValue(Resource.error("No hay conexión a internet", false));
-            isSyncing = false;
-            return;
-        }
-
+    public void processQrData(String qrData) {
+        processQrResult.setValue(Resource.loading(null));
         String username = sessionManager.getUsername();
 
-        if (username.isEmpty()) {
-            Log.e(TAG, "Error: Intentando cargar datos sin un usuario autenticado");
-            syncResult.setValue(Resource.error("No hay usuario autenticado", false));
-            isSyncing = false;
-            return;
-        }
-
-        disposables.add(
-                backupRepository.getBackupFromFirebase(username)
-                        .subscribeOn(Schedulers.io())
-                        .observeOn(AndroidSchedulers.mainThread())
-                        .subscribe(
-                                items -> {
-                                    Log.d(TAG, "Datos cargados desde Firebase: " + items.size() + " elementos para usuario: " + username);
-                                    checkAndSaveItemsLocally(items);
-                                },
-                                error -> {
-                                    Log.e(TAG, "Error cargando desde Firebase", error);
-                                    syncResult.setValue(Resource.error("Error cargando datos: " + error.getMessage(), false));
-                                    isSyncing = false;
-                                }
-                        )
-        );
-    }
-
-    private void checkAndSaveItemsLocally(List<BackupItem> newItems) {
-        if (newItems.isEmpty()) {
-            Log.d(TAG, "No hay elementos nuevos para guardar localmente");
-            syncUploadToFirebase();
-            return;
-        }
-
+        // La captura nunca espera a la red: se valida en el dispositivo o queda en la bandeja.
         disposables.add(
-                backupRepository.getAllBackupItems()
+                backupRepository.captureScan(qrData, username)
                         .subscribeOn(Schedulers.io())
                         .observeOn(AndroidSchedulers.mainThread())
                         .subscribe(
-                                localItems -> {
-                                    Set<String> existingTags = new HashSet<>();
-                                    for (BackupItem item : localItems) {
-                                        existingTags.add(item.getEtiqueta1d());
+                                capture -> {
+                                    if (capture.isQueued()) {
+                                        syncScheduler.requestOutboxDrain(username);
                                     }
-
-                                    List<BackupItem> itemsToAdd = new ArrayList<>();
-                                    for (BackupItem newItem : newItems) {
-                                        if (!existingTags.contains(newItem.getEtiqueta1d())) {
-                                            itemsToAdd.add(newItem);
-                                            Log.d(TAG, "Nuevo elemento para agregar: " + newItem.getEtiqueta1d());
-                                        } else {
-                                            Log.d(TAG, "Elemento ya existe localmente: " + newItem.getEtiqueta1d());
-                                        }
+                                    BackupItem item = capture.getItem();
+                                    if (item != null) {
+                                        syncScheduler.onLocalChange(username, item);
+                                        processQrResult.setValue(Resource.success("Procesado con éxito: " + item.getEtiqueta1d()));
+                                    } else {
+                                        processQrResult.setValue(Resource.success(
+                                                NetworkUtils.isNetworkAvailable(context)
+                                                        ? "Escaneo recibido, validando..."
+                                                        : "Escaneo guardado: se validará al recuperar la red"));
                                     }
-
-                                    saveFilteredItemsLocally(itemsToAdd);
                                 },
                                 error -> {
-                                    Log.e(TAG, "Error obteniendo elementos locales", error);
-                                    syncResult.setValue(Resource.error("Error en sincronización: " + error.getMessage(), false));
-                                    isSyncing = false;
+                                    Log.e(TAG, "Error al procesar QR", error);
+                                    processQrResult.setValue(Resource.error(
+                                            "Error al procesar: " + error.getMessage(), null));
                                 }
                         )
         );
     }
 
-    private void saveFilteredItemsLocally(List<BackupItem> itemsToAdd) {
-        if (itemsToAdd.isEmpty()) {
-            Log.d(TAG, "No hay elementos nuevos para agregar localmente");
-            syncUploadToFirebase();
-            return;
-        }
-
+    // Deja una lápida local; la lista se actualiza sola y el borrado sale en la próxima sincronización.
+    public void deleteItem(BackupItem item) {
         String username = sessionManager.getUsername();
-        Log.d(TAG, "Guardando " + itemsToAdd.size() + " elementos nuevos localmente para usuario: " + username);
-
-        Completable completable = Completable.complete();
-
-        for (BackupItem item : itemsToAdd) {
-            completable = completable.andThen(backupRepository.saveBackupItem(item, username));
-        }
 
         disposables.add(
-                completable
+                backupRepository.deleteBackupItem(item, username)
                         .subscribeOn(Schedulers.io())
                         .observeOn(AndroidSchedulers.mainThread())
                         .subscribe(
                                 () -> {
-                                    Log.d(TAG, "Elementos guardados localmente con éxito");
-                                    loadBackupItems();
-                                    syncUploadToFirebase();
+                                    Log.d(TAG, "Elemento eliminado: " + item.getEtiqueta1d());
+                                    syncScheduler.onLocalChange(username, item);
+                                    deleteResult.setValue(Resource.success("Eliminado: " + item.getEtiqueta1d()));
                                 },
                                 error -> {
-                                    Log.e(TAG, "Error guardando elementos localmente", error);
-                                    syncResult.setValue(Resource.error("Error guardando elementos: " + error.getMessage(), false));
-                                    isSyncing = false;
+                                    Log.e(TAG, "Error al eliminar elemento", error);
+                                    deleteResult.setValue(Resource.error(
+                                            "Error al eliminar: " + error.getMessage(), null));
                                 }
                         )
         );
     }
 
-    private void syncUploadToFirebase() {
-        if (!NetworkUtils.isNetworkAvailable(context)) {
-            Log.d(TAG, "No hay conexión a internet para subida. Cancelando sincronización.");
-            syncResult.setValue(Resource.error("No hay conexión a internet", false));
-            isSyncing = false;
-            return;
-        }
-
-        disposables.add(
-                syncWithFirebase()
-                        .timeout(20, TimeUnit.SECONDS)
-                        .subscribeOn(Schedulers.io())
-                        .observeOn(AndroidSchedulers.mainThread())
-                        .subscribe(
-                                () -> {
-                                    Log.d(TAG, "Sincronización completa");
-                                    loadUserData();
-                                    syncResult.setValue(Resource.success(true));
-                                    isSyncing = false;
-                                },
-                                error -> {
-                                    Log.e(TAG, "Error en sincronización", error);
-                                    syncResult.setValue(Resource.error("Error en sincronización: " + error.getMessage(), false));
-                                    isSyncing = false;
-                                }
-                        )
-        );
-    }
-
-    public void verifyLocalData() {
-        String username = sessionManager.getUsername();
-        if (username.isEmpty()) {
-            Log.e(TAG, "Error: No hay usuario autenticado para verificar datos");
-            return;
-        }
-
-        disposables.add(
-                backupRepository.getAllBackupItemsForUser(username)
-                        .subscribeOn(Schedulers.io())
-                        .observeOn(AndroidSchedulers.mainThread())
-                        .subscribe(
-                                items -> {
-                                    Log.d(TAG, "Verificación de datos locales: " + items.size() +
-                                            " elementos para el usuario: " + username);
-                                    if (items.isEmpty()) {
-                                        Log.d(TAG, "¡Alerta! No hay datos locales para el usuario: " + username);
-                                    } else {
-                                        Log.d(TAG, "Datos locales encontrados para el usuario: " + username);
-                                        backupItems.setValue(items);
-                                    }
-                                },
-                                error -> Log.e(TAG, "Error verificando datos locales: " + error.getMessage(), error)
-                        )
-        );
-    }
-
-    public void processQrData(String qrData) {
-        processQrResult.setValue(Resource.loading(null));
-        String username = sessionManager.getUsername();
-
-        disposables.add(
-                backupRepository.validateQrData(qrData)
-                        .flatMap(response -> {
-                            if (response.isCorrect()) {
-                                BackupItem item = DataParser.parseData(response.getData());
-                                return backupRepository.saveBackupItem(item, username)
-                                        .andThen(Single.just(item));
-                            } else {
-                                return Single.error(new IllegalArgumentException("Estructura QR incorrecta"));
-                            }
-                        })
-                        .flatMap(item -> {
-                            return backupRepository.getBackupCount()
-                                    .map(count -> {
-                                        boolean shouldSync = count % 5 == 0 && count > 0;
-                                        Log.d(TAG, "Contador de elementos: " + count + ", Sincronizar: " + shouldSync);
-                                        return new Object[]{item, shouldSync};
-                                    });
-                        })
-                        .flatMap(result -> {
-                            BackupItem item = (BackupItem) result[0];
-                            boolean shouldSync = (boolean) result[1];
-
-                            if (shouldSync) {
-                                if (!NetworkUtils.isNetworkAvailable(context)) {
-                                    Log.d(TAG, "No hay conexión a internet. Se procesará el QR sin sincronizar.");
-                                    return Single.just(item.getEtiqueta1d() + " (sin sincronizar)");
-                                }
-
-                                Log.d(TAG, "Iniciando sincronización con Firebase para elemento: " + item.getEtiqueta1d());
-                                return syncWithFirebase()
-                                        .andThen(Single.just(item.getEtiqueta1d()));
-                            } else {
-                                return Single.just(item.getEtiqueta1d());
-                            }
-                        })
-                        .subscribeOn(Schedulers.io())
-                        .observeOn(AndroidSchedulers.mainThread())
-                        .subscribe(
-                                etiqueta -> {
-                                    processQrResult.setValue(Resource.success("Procesado con éxito: " + etiqueta));
-                                    loadBackupItems();
-                                },
-                                error -> {
-                                    Log.e(TAG, "Error al procesar QR", error);
-                                    processQrResult.setValue(Resource.error(
-                                            "Error al procesar: " + error.getMessage(), null));
-                                }
-                        )
-        );
-    }
-
-    private io.reactivex.rxjava3.core.Completable syncWithFirebase() {
-        return backupRepository.getAllBackupItems()
-                .flatMapCompletable(items -> {
-                    if (items.isEmpty()) {
-                        Log.d(TAG, "No hay elementos para sincronizar");
-                        return Completable.complete();
-                    }
-
-                    String username = sessionManager.getUsername();
-
-                    if (username.isEmpty()) {
-                        Log.e(TAG, "Error: Intentando sincronizar sin un usuario autenticado");
-                        return Completable.error(new IllegalStateException("No hay usuario autenticado"));
-                    }
-
-                    String currentDate = getCurrentDateAsString();
-                    String deviceId = deviceInfoHelper.getDeviceId();
-                    return backupRepository.syncWithFirebase(items, username, currentDate, deviceId)
-                            .timeout(15, TimeUnit.SECONDS)
-                            .doOnComplete(() -> Log.d(TAG, "Sincronización completada exitosamente para usuario: " + username))
-                            .doOnError(e -> Log.e(TAG, "Error en sincronización", e));
-                });
-    }
-
     public void logout(boolean deleteBackup) {
         logoutResult.setValue(Resource.loading(null));
         String username = sessionManager.getUsername();
+        syncScheduler.cancel();
 
         if (deleteBackup && !username.isEmpty() && NetworkUtils.isNetworkAvailable(context)) {
             Log.d(TAG, "Eliminando backup del usuario: " + username);
@@ -452,19 +213,28 @@ public class MainViewModel extends ViewModel {
         }
     }
 
-    private String getCurrentDateAsString() {
-        SimpleDateFormat sdf = new SimpleDateFormat("yyyy-MM-dd", Locale.getDefault());
-        return sdf.format(new Date());
-    }
+    public Flowable<PagingData<BackupItem>> getPagedBackupItems() {
+        if (pagedBackupItems == null) {
+            String username = sessionManager.getUsername();
+            int pageSize = context.getResources().getInteger(R.integer.backup_page_size);
+            int prefetchDistance = context.getResources().getInteger(R.integer.backup_prefetch_distance);
 
-    public LiveData<List<BackupItem>> getBackupItems() {
-        return backupItems;
+            pagedBackupItems = PagingRx.cachedIn(
+                    backupRepository.getPagedBackupItemsForUser(username,
+                            BackupRepository.pagingConfig(pageSize, prefetchDistance)),
+                    ViewModelKt.getViewModelScope(this));
+        }
+        return pagedBackupItems;
     }
 
     public LiveData<Resource<String>> getProcessQrResult() {
         return processQrResult;
     }
 
+    public LiveData<Resource<String>> getDeleteResult() {
+        return deleteResult;
+    }
+
     public LiveData<Resource<Boolean>> getLogoutResult() {
         return logoutResult;
     }
@@ -473,23 +243,84 @@ public class MainViewModel extends ViewModel {
         return syncResult;
     }
 
+    // Botón de sincronizar: trabajo acelerado que reemplaza al pendiente.
     public void syncAllItems() {
-        if (isSyncing) {
-            Log.d(TAG, "Ya hay una sincronización en progreso");
+        String username = sessionManager.getUsername();
+        if (username.isEmpty()) {
+            Log.e(TAG, "Error: Intentando sincronizar sin un usuario autenticado");
+            syncResult.setValue(Resource.error("No hay usuario autenticado", false));
             return;
         }
 
-        Context context = deviceInfoHelper.getContext();
-        if (!NetworkUtils.isNetworkAvailable(context)) {
-            Log.d(TAG, "No hay conexión a internet. Cancelando sincronización.");
-            syncResult.setValue(Resource.error("No hay conexión a internet", false));
-            return;
+        if (!NetworkUtils.isNetworkAvailable(deviceInfoHelper.getContext())) {
+            Log.d(TAG, "No hay conexión a internet. La sincronización queda en espera de red.");
+            syncResult.setValue(Resource.error("Sin conexión: se sincronizará al recuperar la red", false));
         }
+        visibleSyncId = syncScheduler.requestSync(username, SyncScheduler.Trigger.USER);
+    }
 
-        isSyncing = true;
-        syncResult.setValue(Resource.loading(null));
+    // Al volver a la pantalla; no interrumpe una sincronización ya encolada o en curso.
+    public void requestSyncOnOpen() {
+        String username = sessionManager.getUsername();
+        if (!username.isEmpty()) {
+            syncScheduler.requestOutboxDrain(username);
+            syncScheduler.requestSync(username, SyncScheduler.Trigger.APP_OPEN);
+        }
+    }
 
-        loadFromFirebase();
+    private void onOutboxDrainChanged(List<WorkInfo> infos) {
+        for (WorkInfo info : infos) {
+            if (info.getState() != WorkInfo.State.SUCCEEDED || !reportedDrains.add(info.getId())) {
+                continue;
+            }
+            // Los aceptados aparecen solos en la lista; solo se avisa de los rechazados.
+            int rejected = info.getOutputData().getInt(OutboxDrainWorker.KEY_REJECTED, 0);
+            if (rejected > 0) {
+                processQrResult.setValue(Resource.error(
+                        rejected + " escaneo(s) con estructura QR incorrecta, vuelva a escanearlos", null));
+            }
+        }
+    }
+
+    private void onSyncWorkChanged(List<WorkInfo> infos) {
+        for (WorkInfo info : infos) {
+            if (!info.getTags().contains(SyncScheduler.TAG_VISIBLE)) {
+                continue;
+            }
+
+            switch (info.getState()) {
+                case ENQUEUED:
+                case BLOCKED:
+                    visibleSyncId = info.getId();
+                    break;
+                case RUNNING:
+                    visibleSyncId = info.getId();
+                    int downloaded = info.getProgress().getInt(SyncWorker.KEY_DOWNLOADED, -1);
+                    syncResult.setValue(downloaded >= 0
+                            ? Resource.loading(null, "Descargando elementos: " + downloaded)
+                            : Resource.loading(null));
+                    break;
+                case SUCCEEDED:
+                    if (info.getId().equals(visibleSyncId)) {
+                        visibleSyncId = null;
+                        Log.d(TAG, "Sincronización completa");
+                        syncResult.setValue(Resource.success(true));
+                    }
+                    break;
+                case FAILED:
+                    if (info.getId().equals(visibleSyncId)) {
+                        visibleSyncId = null;
+                        String error = info.getOutputData().getString(SyncWorker.KEY_ERROR);
+                        syncResult.setValue(Resource.error("Error en sincronización: " + error, false));
+                    }
+                    break;
+                case CANCELLED:
+                    if (info.getId().equals(visibleSyncId)) {
+                        visibleSyncId = null;
+                    }
+                    break;
+            }
+        }
     }
 
     @Override
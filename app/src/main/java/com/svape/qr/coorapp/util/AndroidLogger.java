@@ -0,0 +1,20 @@
+package com.svape.qr.coorapp.util;
+
+import android.util.Log;
+
+public class AndroidLogger implements Logger {
+
+    @Override
+    public void d(String tag, String message) {
+        Log.d(tag, message);
+    }
+
+    @Override
+    public void e(String tag, String message, Throwable error) {
+        if (error != null) {
+            Log.e(tag, message, error);
+        } else {
+            Log.e(tag, message);
+        }
+    }
+}
@@ -5,6 +5,7 @@ import android.net.ConnectivityManager;
 import android.net.NetworkCapabilities;
 import android.net.NetworkInfo;
 import android.os.Build;
+import com.svape.qr.coorapp.sync.SyncPolicy;
 
 
 public class NetworkUtils {
@@ -30,4 +31,15 @@ public class NetworkUtils {
             return activeNetworkInfo != null && activeNetworkInfo.isConnected();
         }
     }
-}
\ No newline at end of file
+
+    // Tipo de conexión activa para la política de sincronización.
+    public static SyncPolicy.Connectivity connectivity(Context context) {
+        if (!isNetworkAvailable(context)) return SyncPolicy.Connectivity.NONE;
+
+        ConnectivityManager connectivityManager = (ConnectivityManager)
+                context.getSystemService(Context.CONNECTIVITY_SERVICE);
+        return connectivityManager.isActiveNetworkMetered()
+                ? SyncPolicy.Connectivity.METERED
+                : SyncPolicy.Connectivity.UNMETERED;
+    }
+}
@@ -30,4 +30,8 @@ public class Resource<T> {
     public static <T> Resource<T> loading(@Nullable T data) {
         return new Resource<>(Status.LOADING, data, null);
     }
+
+    public static <T> Resource<T> loading(@Nullable T data, @Nullable String msg) {
+        return new Resource<>(Status.LOADING, data, msg);
+    }
 }
\ No newline at end of file
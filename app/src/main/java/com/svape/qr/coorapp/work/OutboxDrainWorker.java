@@ -0,0 +1,62 @@
+package com.svape.qr.coorapp.work;
+
+import android.content.Context;
+import android.util.Log;
+import androidx.annotation.NonNull;
+import androidx.work.Data;
+import androidx.work.WorkerParameters;
+import androidx.work.rxjava3.RxWorker;
+import com.svape.qr.coorapp.model.BackupItem;
+import com.svape.qr.coorapp.repository.BackupRepository;
+import io.reactivex.rxjava3.core.Single;
+
+/**
+ * Vacía la bandeja de escaneos capturados sin esperar a la red: los valida, guarda los
+ * aceptados y los pasa a la política de sincronización. Mientras no haya red, o el servicio falle, se reintenta
+ * con el backoff del trabajo.
+ */
+public class OutboxDrainWorker extends RxWorker {
+    private static final String TAG = "OutboxDrainWorker";
+    public static final String KEY_USERNAME = "username";
+    public static final String KEY_SAVED = "saved";
+    public static final String KEY_REJECTED = "rejected";
+
+    private final BackupRepository backupRepository;
+    private final SyncScheduler syncScheduler;
+
+    public OutboxDrainWorker(@NonNull Context context, @NonNull WorkerParameters params,
+                             BackupRepository backupRepository, SyncScheduler syncScheduler) {
+        super(context, params);
+        this.backupRepository = backupRepository;
+        this.syncScheduler = syncScheduler;
+    }
+
+    @NonNull
+    @Override
+    public Single<Result> createWork() {
+        String username = getInputData().getString(KEY_USERNAME);
+        if (username == null || username.isEmpty()) {
+            Log.e(TAG, "Error: Bandeja de escaneos encolada sin usuario");
+            return Single.just(Result.failure());
+        }
+
+        return backupRepository.drainOutbox(username)
+                .map(result -> {
+                    // Los escaneos validados cuentan para la política como cualquier cambio local.
+                    for (BackupItem item : result.getSaved()) {
+                        syncScheduler.onLocalChange(username, item);
+                    }
+                    if (result.getFailed() > 0) {
+                        return Result.retry();
+                    }
+                    return Result.success(new Data.Builder()
+                            .putInt(KEY_SAVED, result.getSaved().size())
+                            .putInt(KEY_REJECTED, result.getRejected())
+                            .build());
+                })
+                .onErrorReturn(error -> {
+                    Log.e(TAG, "Error vaciando la bandeja, se reintentará", error);
+                    return Result.retry();
+                });
+    }
+}
@@ -0,0 +1,135 @@
+package com.svape.qr.coorapp.work;
+
+import android.content.Context;
+import android.util.Log;
+import androidx.lifecycle.LiveData;
+import androidx.work.BackoffPolicy;
+import androidx.work.Constraints;
+import androidx.work.Data;
+import androidx.work.ExistingWorkPolicy;
+import androidx.work.NetworkType;
+import androidx.work.OneTimeWorkRequest;
+import androidx.work.OutOfQuotaPolicy;
+import androidx.work.WorkInfo;
+import androidx.work.WorkManager;
+import com.svape.qr.coorapp.model.BackupItem;
+import com.svape.qr.coorapp.repository.SyncCoordinator;
+import com.svape.qr.coorapp.sync.PendingChangeTracker;
+import com.svape.qr.coorapp.sync.SyncPolicy;
+import com.svape.qr.coorapp.util.NetworkUtils;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encola la sincronización como un único trabajo de WorkManager: sobrevive a la Activity y al
+ * ViewModel, espera a tener red y reintenta con backoff exponencial.
+ */
+public class SyncScheduler {
+    private static final String TAG = "SyncScheduler";
+    public static final String UNIQUE_WORK_NAME = "backup-sync";
+    public static final String OUTBOX_WORK_NAME = "scan-outbox";
+    // Etiqueta de las sincronizaciones cuyo progreso y resultado se muestran en pantalla.
+    public static final String TAG_VISIBLE = "backup-sync-visible";
+    // Los escaneos seguidos dentro de esta ventana se suben en una sola sincronización.
+    static final long SCAN_COALESCE_SECONDS = 10;
+    static final long BACKOFF_SECONDS = 30;
+
+    public enum Trigger {
+        // Cambios locales que superaron la política: diferido y agrupado con los siguientes.
+        LOCAL_CHANGE,
+        // Apertura de la pantalla principal: inmediato, pero no interrumpe uno en curso.
+        APP_OPEN,
+        // Botón de sincronizar: acelerado y reemplaza cualquier trabajo pendiente o en curso.
+        USER
+    }
+
+    private final Context context;
+    private final PendingChangeTracker pendingChanges;
+    private final SyncCoordinator syncCoordinator;
+
+    public SyncScheduler(Context context, PendingChangeTracker pendingChanges, SyncCoordinator syncCoordinator) {
+        this.context = context.getApplicationContext();
+        this.pendingChanges = pendingChanges;
+        this.syncCoordinator = syncCoordinator;
+    }
+
+    private WorkManager workManager() {
+        return WorkManager.getInstance(context);
+    }
+
+    // Escaneo o borrado local: solo se sincroniza cuando la política lo decide.
+    public void onLocalChange(String username, BackupItem item) {
+        SyncPolicy.Decision decision = pendingChanges.recordChange(username, item,
+                NetworkUtils.connectivity(context));
+        if (decision == SyncPolicy.Decision.SYNC) {
+            requestSync(username, Trigger.LOCAL_CHANGE);
+        }
+    }
+
+    // Devuelve el id de la solicitud; con KEEP (APP_OPEN) puede quedar descartada a favor de la
+    // existente. LOCAL_CHANGE usa APPEND_OR_REPLACE: el contador de cambios ya se reinició y una
+    // sincronización en curso pudo subir antes de estos cambios, así que se encadena detrás.
+    public UUID requestSync(String username, Trigger trigger) {
+        Constraints constraints = new Constraints.Builder()
+                .setRequiredNetworkType(NetworkType.CONNECTED)
+                .build();
+
+        OneTimeWorkRequest.Builder builder = new OneTimeWorkRequest.Builder(SyncWorker.class)
+                .setConstraints(constraints)
+                .setBackoffCriteria(BackoffPolicy.EXPONENTIAL, BACKOFF_SECONDS, TimeUnit.SECONDS)
+                .setInputData(new Data.Builder().putString(SyncWorker.KEY_USERNAME, username).build());
+
+        ExistingWorkPolicy policy;
+        switch (trigger) {
+            case LOCAL_CHANGE:
+                builder.setInitialDelay(SCAN_COALESCE_SECONDS, TimeUnit.SECONDS);
+                policy = ExistingWorkPolicy.APPEND_OR_REPLACE;
+                break;
+            case APP_OPEN:
+                builder.addTag(TAG_VISIBLE);
+                policy = ExistingWorkPolicy.KEEP;
+                break;
+            default:
+                builder.addTag(TAG_VISIBLE)
+                        .setExpedited(OutOfQuotaPolicy.RUN_AS_NON_EXPEDITED_WORK_REQUEST);
+                policy = ExistingWorkPolicy.REPLACE;
+                break;
+        }
+
+        pendingChanges.markScheduled(username);
+        OneTimeWorkRequest request = builder.build();
+        Log.d(TAG, "Sincronización solicitada (" + trigger + ") para usuario: " + username);
+        workManager().enqueueUniqueWork(UNIQUE_WORK_NAME, policy, request);
+        return request.getId();
+    }
+
+    // Escaneos en la bandeja: se validan al haber red. APPEND_OR_REPLACE encadena un vaciado
+    // detrás del que está en curso, que pudo leer la bandeja antes de este escaneo; si la bandeja
+    // ya quedó vacía, el encadenado termina sin trabajo.
+    public void requestOutboxDrain(String username) {
+        OneTimeWorkRequest request = new OneTimeWorkRequest.Builder(OutboxDrainWorker.class)
+                .setConstraints(new Constraints.Builder()
+                        .setRequiredNetworkType(NetworkType.CONNECTED)
+                        .build())
+                .setBackoffCriteria(BackoffPolicy.EXPONENTIAL, BACKOFF_SECONDS, TimeUnit.SECONDS)
+                .setInputData(new Data.Builder().putString(OutboxDrainWorker.KEY_USERNAME, username).build())
+                .build();
+        workManager().enqueueUniqueWork(OUTBOX_WORK_NAME, ExistingWorkPolicy.APPEND_OR_REPLACE, request);
+    }
+
+    public LiveData<List<WorkInfo>> observeOutboxDrain() {
+        return workManager().getWorkInfosForUniqueWorkLiveData(OUTBOX_WORK_NAME);
+    }
+
+    public LiveData<List<WorkInfo>> observeSync() {
+        return workManager().getWorkInfosForUniqueWorkLiveData(UNIQUE_WORK_NAME);
+    }
+
+    // Cancelar el trabajo no detiene una sincronización ya iniciada; el coordinador sí.
+    public void cancel() {
+        workManager().cancelUniqueWork(UNIQUE_WORK_NAME);
+        workManager().cancelUniqueWork(OUTBOX_WORK_NAME);
+        syncCoordinator.cancel();
+    }
+}
@@ -0,0 +1,94 @@
+package com.svape.qr.coorapp.work;
+
+import android.app.NotificationChannel;
+import android.app.NotificationManager;
+import android.content.Context;
+import android.os.Build;
+import android.util.Log;
+import androidx.annotation.NonNull;
+import androidx.core.app.NotificationCompat;
+import androidx.work.Data;
+import androidx.work.ForegroundInfo;
+import androidx.work.WorkerParameters;
+import androidx.work.rxjava3.RxWorker;
+import com.svape.qr.coorapp.R;
+import com.svape.qr.coorapp.repository.SyncCoordinator;
+import io.reactivex.rxjava3.core.Single;
+import io.reactivex.rxjava3.disposables.Disposable;
+
+/**
+ * Sincroniza a través de {@link SyncCoordinator}, así que nunca corre en paralelo con otra
+ * sincronización. Si falla se reintenta con el backoff del trabajo; las filas siguen marcadas
+ * como pendientes hasta subirse.
+ */
+public class SyncWorker extends RxWorker {
+    private static final String TAG = "SyncWorker";
+    public static final String KEY_USERNAME = "username";
+    public static final String KEY_DOWNLOADED = "downloaded";
+    public static final String KEY_UPLOADED = "uploaded";
+    public static final String KEY_ERROR = "error";
+    private static final int MAX_ATTEMPTS = 5;
+    private static final String CHANNEL_ID = "sync";
+    private static final int NOTIFICATION_ID = 1001;
+
+    private final SyncCoordinator syncCoordinator;
+
+    public SyncWorker(@NonNull Context context, @NonNull WorkerParameters params,
+                      SyncCoordinator syncCoordinator) {
+        super(context, params);
+        this.syncCoordinator = syncCoordinator;
+    }
+
+    @NonNull
+    @Override
+    public Single<Result> createWork() {
+        String username = getInputData().getString(KEY_USERNAME);
+        if (username == null || username.isEmpty()) {
+            Log.e(TAG, "Error: Sincronización encolada sin usuario");
+            return Single.just(Result.failure());
+        }
+
+        // Si ya hay una en curso, este trabajo espera a la de seguimiento y reporta su progreso.
+        return Single.using(
+                        () -> syncCoordinator.observeStatus()
+                                .filter(status -> status.getState() == SyncCoordinator.Status.State.RUNNING
+                                        && status.getDownloaded() > 0)
+                                .subscribe(status -> setProgressAsync(new Data.Builder()
+                                        .putInt(KEY_DOWNLOADED, status.getDownloaded()).build())),
+                        progress -> syncCoordinator.sync(username),
+                        Disposable::dispose)
+                .map(status -> {
+                    Log.d(TAG, "Sincronización completada para usuario: " + username
+                            + " (" + status.getUploaded() + " cambios subidos)");
+                    return Result.success(new Data.Builder().putInt(KEY_UPLOADED, status.getUploaded()).build());
+                })
+                .onErrorReturn(error -> {
+                    Log.e(TAG, "Error en sincronización, intento " + (getRunAttemptCount() + 1), error);
+                    if (getRunAttemptCount() + 1 < MAX_ATTEMPTS) {
+                        return Result.retry();
+                    }
+                    return Result.failure(new Data.Builder()
+                            .putString(KEY_ERROR, String.valueOf(error.getMessage()))
+                            .build());
+                });
+    }
+
+    // Antes de Android 12 un trabajo acelerado corre como servicio en primer plano.
+    @NonNull
+    @Override
+    public Single<ForegroundInfo> getForegroundInfo() {
+        Context context = getApplicationContext();
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.O) {
+            NotificationChannel channel = new NotificationChannel(CHANNEL_ID,
+                    context.getString(R.string.sync_channel_name), NotificationManager.IMPORTANCE_LOW);
+            context.getSystemService(NotificationManager.class).createNotificationChannel(channel);
+        }
+
+        return Single.just(new ForegroundInfo(NOTIFICATION_ID,
+                new NotificationCompat.Builder(context, CHANNEL_ID)
+                        .setSmallIcon(R.drawable.ic_sync)
+                        .setContentTitle(context.getString(R.string.sync_notification_title))
+                        .setOngoing(true)
+                        .build()));
+    }
+}
@@ -0,0 +1,41 @@
+package com.svape.qr.coorapp.work;
+
+import android.content.Context;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.work.ListenableWorker;
+import androidx.work.WorkerFactory;
+import androidx.work.WorkerParameters;
+import com.svape.qr.coorapp.repository.BackupRepository;
+import com.svape.qr.coorapp.repository.SyncCoordinator;
+import javax.inject.Inject;
+import javax.inject.Provider;
+
+// Crea los workers con sus dependencias del grafo de Dagger.
+public class SyncWorkerFactory extends WorkerFactory {
+    private final Provider<SyncCoordinator> syncCoordinator;
+    private final Provider<BackupRepository> backupRepository;
+    private final Provider<SyncScheduler> syncScheduler;
+
+    @Inject
+    public SyncWorkerFactory(Provider<SyncCoordinator> syncCoordinator,
+                             Provider<BackupRepository> backupRepository,
+                             Provider<SyncScheduler> syncScheduler) {
+        this.syncCoordinator = syncCoordinator;
+        this.backupRepository = backupRepository;
+        this.syncScheduler = syncScheduler;
+    }
+
+    @Nullable
+    @Override
+    public ListenableWorker createWorker(@NonNull Context appContext, @NonNull String workerClassName,
+                                         @NonNull WorkerParameters workerParameters) {
+        if (SyncWorker.class.getName().equals(workerClassName)) {
+            return new SyncWorker(appContext, workerParameters, syncCoordinator.get());
+        }
+        if (OutboxDrainWorker.class.getName().equals(workerClassName)) {
+            return new OutboxDrainWorker(appContext, workerParameters, backupRepository.get(), syncScheduler.get());
+        }
+        return null;
+    }
+}
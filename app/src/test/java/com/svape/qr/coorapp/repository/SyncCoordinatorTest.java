@@ -0,0 +1,110 @@
+package com.svape.qr.coorapp.repository;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.svape.qr.coorapp.repository.SyncCoordinator.Status;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.util.concurrent.CancellationException;
+
+import io.reactivex.rxjava3.core.Single;
+import io.reactivex.rxjava3.observers.TestObserver;
+import io.reactivex.rxjava3.subjects.PublishSubject;
+
+@RunWith(JUnit4.class)
+public class SyncCoordinatorTest {
+
+    private BackupRepository backupRepository;
+    private PublishSubject<Integer> firstDownload;
+    private PublishSubject<Integer> secondDownload;
+    private SyncCoordinator coordinator;
+
+    @Before
+    public void setup() {
+        backupRepository = mock(BackupRepository.class);
+        firstDownload = PublishSubject.create();
+        secondDownload = PublishSubject.create();
+        when(backupRepository.downloadBackupToLocal("ana")).thenReturn(firstDownload, secondDownload);
+        when(backupRepository.syncPendingChanges(eq("ana"), anyString(), eq("device")))
+                .thenReturn(Single.just(0));
+        coordinator = new SyncCoordinator(backupRepository, "device");
+    }
+
+    @Test
+    public void concurrentRequests_shareRunAndSingleFollowUp() {
+        TestObserver<Status> first = coordinator.sync("ana").test();
+        TestObserver<Status> second = coordinator.sync("ana").test();
+        TestObserver<Status> third = coordinator.sync("ana").test();
+        verify(backupRepository, times(1)).downloadBackupToLocal("ana");
+
+        firstDownload.onNext(10);
+        firstDownload.onComplete();
+
+        first.assertValue(status -> status.getState() == Status.State.SUCCEEDED
+                && status.getDownloaded() == 10);
+        second.assertNoValues();
+        verify(backupRepository, times(2)).downloadBackupToLocal("ana");
+
+        secondDownload.onComplete();
+
+        second.assertValue(status -> status.getState() == Status.State.SUCCEEDED);
+        third.assertValue(status -> status.getState() == Status.State.SUCCEEDED);
+        verify(backupRepository, times(2)).downloadBackupToLocal("ana");
+    }
+
+    @Test
+    public void statusStream_reportsProgressAndReturnsToIdle() {
+        TestObserver<Status> status = coordinator.observeStatus().test();
+
+        coordinator.sync("ana").test();
+        firstDownload.onNext(500);
+        firstDownload.onComplete();
+
+        status.assertValueCount(5);
+        assertEquals(Status.State.IDLE, status.values().get(0).getState());
+        assertEquals(Status.State.RUNNING, status.values().get(1).getState());
+        assertEquals(500, status.values().get(2).getDownloaded());
+        assertEquals(Status.State.SUCCEEDED, status.values().get(3).getState());
+        assertEquals(Status.State.IDLE, status.values().get(4).getState());
+    }
+
+    @Test
+    public void failure_isReportedAndFollowUpStillRuns() {
+        TestObserver<Status> first = coordinator.sync("ana").test();
+        TestObserver<Status> followUp = coordinator.sync("ana").test();
+
+        firstDownload.onError(new IllegalStateException("sin red"));
+
+        first.assertError(IllegalStateException.class);
+        assertEquals(Status.State.RUNNING, coordinator.observeStatus().blockingFirst().getState());
+
+        secondDownload.onComplete();
+        followUp.assertValue(status -> status.getState() == Status.State.SUCCEEDED);
+    }
+
+    @Test
+    public void cancel_failsPendingRequestsAndAllowsNewSync() {
+        TestObserver<Status> first = coordinator.sync("ana").test();
+        TestObserver<Status> followUp = coordinator.sync("ana").test();
+
+        coordinator.cancel();
+
+        first.assertError(CancellationException.class);
+        followUp.assertError(CancellationException.class);
+        assertEquals(Status.State.IDLE, coordinator.observeStatus().blockingFirst().getState());
+
+        TestObserver<Status> next = coordinator.sync("ana").test();
+        secondDownload.onComplete();
+        next.assertValue(status -> status.getState() == Status.State.SUCCEEDED);
+    }
+}
@@ -0,0 +1,150 @@
+package com.svape.qr.coorapp.repository;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import android.database.Cursor;
+
+import androidx.room.Room;
+import androidx.test.core.app.ApplicationProvider;
+
+import com.svape.qr.coorapp.model.ApiResponse;
+import com.svape.qr.coorapp.repository.local.AppDatabase;
+import com.svape.qr.coorapp.repository.local.UserDatabaseManager;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+@RunWith(RobolectricTestRunner.class)
+public class ValidationCacheTest {
+
+    private static final String USER = "ana";
+    private static final String PAYLOAD = "ZXRpcXVldGExZDoxMjM0NQ==";
+
+    private final AtomicLong time = new AtomicLong(1_000_000);
+    private AppDatabase database;
+    private UserDatabaseManager databaseManager;
+
+    @Before
+    public void setup() {
+        database = Room.inMemoryDatabaseBuilder(ApplicationProvider.getApplicationContext(), AppDatabase.class)
+                .allowMainThreadQueries()
+                .build();
+        databaseManager = mock(UserDatabaseManager.class);
+        when(databaseManager.open(USER)).thenReturn(database);
+    }
+
+    @After
+    public void tearDown() {
+        database.close();
+    }
+
+    @Test
+    public void put_isServedFromMemoryThenFromDiskAfterRestart() {
+        ValidationCache cache = cache();
+        cache.put(USER, PAYLOAD, new ApiResponse(true, "etiqueta1d:12345"));
+
+        assertResponse(cache.get(USER, PAYLOAD), true, "etiqueta1d:12345");
+        assertEquals(1, cache.getStats().getMemoryHits());
+        assertEquals(0, cache.getStats().getDiskHits());
+
+        // Un proceso nuevo empieza con la memoria vacía: responde el disco y promueve la entrada.
+        ValidationCache restarted = cache();
+        assertResponse(restarted.get(USER, PAYLOAD), true, "etiqueta1d:12345");
+        assertEquals(1, restarted.getStats().getDiskHits());
+        assertEquals(1, restarted.getStats().getMemoryEntries());
+
+        assertResponse(restarted.get(USER, PAYLOAD), true, "etiqueta1d:12345");
+        assertEquals(1, restarted.getStats().getMemoryHits());
+        assertEquals(1, restarted.getStats().getDiskHits());
+        assertEquals(0, restarted.getStats().getMisses());
+    }
+
+    @Test
+    public void incorrectResponses_areCachedToo() {
+        ValidationCache cache = cache();
+        cache.put(USER, PAYLOAD, new ApiResponse(false, "estructura Incorrecta"));
+
+        assertResponse(cache().get(USER, PAYLOAD), false, "estructura Incorrecta");
+    }
+
+    @Test
+    public void entries_expireInBothTiersAfterTtl() {
+        ValidationCache cache = cache();
+        cache.put(USER, PAYLOAD, new ApiResponse(true, "dato"));
+
+        time.addAndGet(ValidationCache.TTL_MILLIS);
+
+        assertNull(cache.get(USER, PAYLOAD));
+        assertEquals(1, cache.getStats().getExpirations());
+        assertEquals(1, cache.getStats().getMisses());
+        assertNull(cache().get(USER, PAYLOAD));
+    }
+
+    @Test
+    public void promotedEntry_keepsItsOriginalTtl() {
+        cache().put(USER, PAYLOAD, new ApiResponse(true, "dato"));
+
+        time.addAndGet(ValidationCache.TTL_MILLIS - 1);
+        ValidationCache restarted = cache();
+        assertNotNull(restarted.get(USER, PAYLOAD));
+
+        time.incrementAndGet();
+        assertNull(restarted.get(USER, PAYLOAD));
+    }
+
+    @Test
+    public void everyTrimIntervalWrites_expiredRowsAreDeleted() {
+        ValidationCache cache = cache();
+        int half = ValidationCache.TRIM_INTERVAL / 2;
+        for (int i = 0; i < half; i++) {
+            cache.put(USER, "viejo" + i, new ApiResponse(true, "dato"));
+        }
+
+        time.addAndGet(ValidationCache.TTL_MILLIS);
+        for (int i = 0; i < half - 1; i++) {
+            cache.put(USER, "nuevo" + i, new ApiResponse(true, "dato"));
+        }
+        assertEquals(ValidationCache.TRIM_INTERVAL - 1, diskRows());
+
+        cache.put(USER, "nuevo" + (half - 1), new ApiResponse(true, "dato"));
+        assertEquals(half, diskRows());
+    }
+
+    @Test
+    public void digest_ignoresWhitespaceAddedByEncoders() {
+        cache().put(USER, "ZXRpcXVldGEx\nZDoxMjM0NQ==\n", new ApiResponse(true, "dato"));
+
+        assertNotNull(cache().get(USER, PAYLOAD));
+        assertEquals(ValidationCache.digest(PAYLOAD), ValidationCache.digest(" ZXRpcXVldGEx\r\nZDoxMjM0NQ== "));
+        assertNotEquals(ValidationCache.digest(PAYLOAD), ValidationCache.digest("ZXRpcXVldGExZDoxMjM0Ng=="));
+        assertTrue(ValidationCache.digest(PAYLOAD).matches("[0-9a-f]{64}"));
+    }
+
+    private ValidationCache cache() {
+        return new ValidationCache(databaseManager, time::get);
+    }
+
+    private int diskRows() {
+        try (Cursor cursor = database.query("SELECT COUNT(*) FROM validation_cache", null)) {
+            cursor.moveToFirst();
+            return cursor.getInt(0);
+        }
+    }
+
+    private static void assertResponse(ApiResponse response, boolean expectedCorrect, String expectedData) {
+        assertNotNull("La respuesta no debería ser nula", response);
+        assertEquals(expectedCorrect, response.isCorrect());
+        assertEquals(expectedData, response.getData());
+    }
+}
@@ -0,0 +1,217 @@
+package com.svape.qr.coorapp.service;
+
+import static org.junit.Assert.assertEquals;
+
+import com.svape.qr.coorapp.model.ApiResponse;
+import com.svape.qr.coorapp.util.QrValidator;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import io.reactivex.rxjava3.core.Single;
+import io.reactivex.rxjava3.observers.TestObserver;
+import io.reactivex.rxjava3.schedulers.Schedulers;
+import io.reactivex.rxjava3.schedulers.TestScheduler;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+
+@RunWith(JUnit4.class)
+public class BatchingValidationClientTest {
+
+    private static final long WINDOW_MILLIS = 100;
+
+    private MockWebServer server;
+    private TestScheduler scheduler;
+    private volatile boolean serverFailing;
+
+    @Before
+    public void setup() throws Exception {
+        server = new MockWebServer();
+        server.setDispatcher(new BatchValidationDispatcher());
+        server.start();
+        scheduler = new TestScheduler();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        server.shutdown();
+    }
+
+    @Test
+    public void scansBeyondMaxItems_goOutInBatches() {
+        BatchingValidationClient client = client(50);
+
+        List<TestObserver<ApiResponse>> observers = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            observers.add(client.validate(payload("E" + i, i % 10 == 0 ? "95.0" : "4.6")).test());
+        }
+
+        for (int i = 0; i < observers.size(); i++) {
+            TestObserver<ApiResponse> observer = observers.get(i).awaitDone(5, TimeUnit.SECONDS);
+            if (i % 10 == 0) {
+                observer.assertValue(response -> !response.isCorrect());
+            } else {
+                String etiqueta = "E" + i;
+                observer.assertValue(response -> response.isCorrect()
+                        && response.getData().startsWith("etiqueta1d:" + etiqueta + "-"));
+            }
+        }
+        // Un escaneo por petición serían 100.
+        assertEquals(2, server.getRequestCount());
+    }
+
+    @Test
+    public void partialBatch_isSentWhenWindowCloses() {
+        BatchingValidationClient client = client(50);
+
+        List<TestObserver<ApiResponse>> observers = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            observers.add(client.validate(payload("P" + i, "4.6")).test());
+        }
+        scheduler.advanceTimeBy(WINDOW_MILLIS - 1, TimeUnit.MILLISECONDS);
+        assertEquals(0, server.getRequestCount());
+
+        scheduler.advanceTimeBy(1, TimeUnit.MILLISECONDS);
+
+        for (TestObserver<ApiResponse> observer : observers) {
+            observer.awaitDone(5, TimeUnit.SECONDS).assertValue(ApiResponse::isCorrect);
+        }
+        assertEquals(1, server.getRequestCount());
+    }
+
+    @Test
+    public void windowAfterFullBatch_onlySendsNewScans() throws Exception {
+        BatchingValidationClient client = client(2);
+
+        TestObserver<ApiResponse> first = client.validate(payload("A", "4.6")).test();
+        TestObserver<ApiResponse> second = client.validate(payload("B", "4.6")).test();
+        TestObserver<ApiResponse> third = client.validate(payload("C", "4.6")).test();
+        scheduler.advanceTimeBy(WINDOW_MILLIS, TimeUnit.MILLISECONDS);
+
+        first.awaitDone(5, TimeUnit.SECONDS).assertValue(ApiResponse::isCorrect);
+        second.awaitDone(5, TimeUnit.SECONDS).assertValue(ApiResponse::isCorrect);
+        third.awaitDone(5, TimeUnit.SECONDS).assertValue(ApiResponse::isCorrect);
+        // Las dos peticiones viajan en hilos distintos; el orden de llegada no está garantizado.
+        int firstBatch = itemsIn(server.takeRequest());
+        int secondBatch = itemsIn(server.takeRequest());
+        assertEquals(2, Math.max(firstBatch, secondBatch));
+        assertEquals(1, Math.min(firstBatch, secondBatch));
+    }
+
+    @Test
+    public void disposedCaller_isLeftOutOfTheBatch() throws Exception {
+        BatchingValidationClient client = client(50);
+
+        TestObserver<ApiResponse> kept = client.validate(payload("A", "4.6")).test();
+        TestObserver<ApiResponse> abandoned = client.validate(payload("B", "4.6")).test();
+        abandoned.dispose();
+        scheduler.advanceTimeBy(WINDOW_MILLIS, TimeUnit.MILLISECONDS);
+
+        kept.awaitDone(5, TimeUnit.SECONDS).assertValue(ApiResponse::isCorrect);
+        abandoned.assertNoValues().assertNoErrors();
+        assertEquals(1, itemsIn(server.takeRequest()));
+    }
+
+    @Test
+    public void serverError_failsEveryScanInTheBatch() {
+        serverFailing = true;
+        BatchingValidationClient client = client(2);
+
+        TestObserver<ApiResponse> first = client.validate(payload("A", "4.6")).test();
+        TestObserver<ApiResponse> second = client.validate(payload("B", "4.6")).test();
+
+        first.awaitDone(5, TimeUnit.SECONDS).assertError(Exception.class);
+        second.awaitDone(5, TimeUnit.SECONDS).assertError(Exception.class);
+        assertEquals(1, server.getRequestCount());
+    }
+
+    private BatchingValidationClient client(int maxItems) {
+        return new BatchingValidationClient(new HttpTransport(), server.url("/api/v1/validar/lote").toString(),
+                maxItems, WINDOW_MILLIS, scheduler);
+    }
+
+    private static String payload(String etiqueta, String latitud) {
+        String data = "etiqueta1d:" + etiqueta + "-latitud:" + latitud + "-longitud:-74.1-observacion:ok";
+        return Base64.getEncoder().encodeToString(data.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static int itemsIn(RecordedRequest request) throws Exception {
+        return new JSONObject(request.getBody().readUtf8()).getJSONArray("items").length();
+    }
+
+    // Variante por lotes del contrato de /api/v1/validar, con las reglas de QrValidator.
+    private class BatchValidationDispatcher extends Dispatcher {
+        @Override
+        public MockResponse dispatch(RecordedRequest request) {
+            if (serverFailing) {
+                return new MockResponse().setResponseCode(503);
+            }
+            try {
+                // clone(): el cuerpo sigue disponible para takeRequest().
+                JSONArray items = new JSONObject(request.getBody().clone().readUtf8()).getJSONArray("items");
+                JSONArray resultados = new JSONArray();
+                for (int i = 0; i < items.length(); i++) {
+                    QrValidator.Result result = QrValidator.validate(items.getJSONObject(i).getString("data"));
+                    resultados.put(new JSONObject()
+                            .put("Correcto", result.isValid() ? "estructura Correcta" : "estructura Incorrecta")
+                            .put("data", result.isValid() ? result.getData() : result.getError()));
+                }
+                return new MockResponse()
+                        .setHeader("Content-Type", "application/json")
+                        .setBody(new JSONObject().put("resultados", resultados).toString());
+            } catch (Exception e) {
+                return new MockResponse().setResponseCode(400);
+            }
+        }
+    }
+
+    // Sustituye a Volley, que necesita el Looper de Android.
+    private static class HttpTransport implements ValidationTransport {
+        @Override
+        public Single<JSONObject> post(String url, JSONObject body) {
+            return Single.fromCallable(() -> {
+                HttpURLConnection connection = (HttpURLConnection) new URL(url).openConnection();
+                try {
+                    connection.setRequestMethod("POST");
+                    connection.setDoOutput(true);
+                    connection.setRequestProperty("Content-Type", "application/json");
+                    try (OutputStream out = connection.getOutputStream()) {
+                        out.write(body.toString().getBytes(StandardCharsets.UTF_8));
+                    }
+                    if (connection.getResponseCode() != HttpURLConnection.HTTP_OK) {
+                        throw new IllegalStateException("HTTP " + connection.getResponseCode());
+                    }
+                    try (InputStream in = connection.getInputStream()) {
+                        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+                        byte[] chunk = new byte[4096];
+                        int read;
+                        while ((read = in.read(chunk)) != -1) {
+                            buffer.write(chunk, 0, read);
+                        }
+                        return new JSONObject(buffer.toString("UTF-8"));
+                    }
+                } finally {
+                    connection.disconnect();
+                }
+            }).subscribeOn(Schedulers.io());
+        }
+    }
+}
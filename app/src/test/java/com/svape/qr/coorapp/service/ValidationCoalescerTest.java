@@ -0,0 +1,168 @@
+package com.svape.qr.coorapp.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.android.volley.NetworkError;
+import com.svape.qr.coorapp.model.ApiResponse;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.reactivex.rxjava3.core.Single;
+import io.reactivex.rxjava3.observers.TestObserver;
+import io.reactivex.rxjava3.subjects.SingleSubject;
+
+@RunWith(JUnit4.class)
+public class ValidationCoalescerTest {
+
+    private static final String PAYLOAD = "ZXRpcXVldGExZDoxMjM0NQ==";
+    private static final int SUBSCRIBERS = 16;
+
+    private ApiService apiService;
+    private SingleSubject<ApiResponse> network;
+    private AtomicInteger requests;
+    private ValidationCoalescer coalescer;
+
+    @Before
+    public void setup() {
+        apiService = mock(ApiService.class);
+        network = SingleSubject.create();
+        requests = new AtomicInteger();
+        // Cada suscripción al Single de ApiService equivale a una petición Volley.
+        when(apiService.validateData(PAYLOAD)).thenAnswer(invocation -> Single.defer(() -> {
+            requests.incrementAndGet();
+            return network;
+        }));
+        coalescer = new ValidationCoalescer(apiService);
+    }
+
+    @Test
+    public void concurrentSubscribers_shareOneNetworkRequest() throws InterruptedException {
+        List<TestObserver<ApiResponse>> observers = subscribeConcurrently(PAYLOAD, SUBSCRIBERS);
+
+        assertEquals(1, requests.get());
+        verify(apiService, times(1)).validateData(PAYLOAD);
+
+        network.onSuccess(new ApiResponse(true, "12345,4.6,-74.1,ok"));
+
+        for (TestObserver<ApiResponse> observer : observers) {
+            observer.awaitDone(5, TimeUnit.SECONDS);
+            observer.assertValue(response -> response.isCorrect() && "12345,4.6,-74.1,ok".equals(response.getData()));
+        }
+        assertEquals(1, requests.get());
+        assertEquals(0, coalescer.inFlightCount());
+    }
+
+    @Test
+    public void requestAfterCompletion_goesToNetworkAgain() {
+        coalescer.validate(PAYLOAD).test();
+        network.onSuccess(new ApiResponse(true, "dato"));
+
+        network = SingleSubject.create();
+        TestObserver<ApiResponse> next = coalescer.validate(PAYLOAD).test();
+
+        assertEquals(2, requests.get());
+        verify(apiService, times(2)).validateData(PAYLOAD);
+        assertEquals(1, coalescer.inFlightCount());
+
+        // Un tercero mientras la segunda sigue en camino se suma a ella.
+        TestObserver<ApiResponse> joined = coalescer.validate(PAYLOAD).test();
+        assertEquals(2, requests.get());
+
+        network.onSuccess(new ApiResponse(false, "otro"));
+        next.assertValue(response -> !response.isCorrect());
+        joined.assertValue(response -> !response.isCorrect());
+        assertEquals(0, coalescer.inFlightCount());
+    }
+
+    @Test
+    public void retryFromErrorCallback_issuesNewRequest() {
+        SingleSubject<ApiResponse> failing = network;
+        SingleSubject<ApiResponse> retry = SingleSubject.create();
+        TestObserver<ApiResponse> retried = new TestObserver<>();
+        coalescer.validate(PAYLOAD).subscribe(response -> { }, error -> {
+            network = retry;
+            coalescer.validate(PAYLOAD).subscribe(retried);
+        });
+
+        failing.onError(new NetworkError());
+
+        assertEquals(2, requests.get());
+        retry.onSuccess(new ApiResponse(true, "dato"));
+        retried.assertValue(ApiResponse::isCorrect);
+    }
+
+    @Test
+    public void error_reachesAllWaitingCallersAndIsNotRemembered() {
+        TestObserver<ApiResponse> first = coalescer.validate(PAYLOAD).test();
+        TestObserver<ApiResponse> second = coalescer.validate(PAYLOAD).test();
+
+        network.onError(new NetworkError());
+
+        first.assertError(NetworkError.class);
+        second.assertError(NetworkError.class);
+        assertEquals(0, coalescer.inFlightCount());
+
+        network = SingleSubject.create();
+        coalescer.validate(PAYLOAD).test();
+        assertEquals(2, requests.get());
+    }
+
+    @Test
+    public void differentPayloads_areNotCoalesced() {
+        when(apiService.validateData("otro")).thenReturn(Single.never());
+
+        coalescer.validate(PAYLOAD).test();
+        coalescer.validate("otro").test();
+
+        verify(apiService, times(1)).validateData(PAYLOAD);
+        verify(apiService, times(1)).validateData("otro");
+        assertEquals(2, coalescer.inFlightCount());
+    }
+
+    private List<TestObserver<ApiResponse>> subscribeConcurrently(String payload, int count)
+            throws InterruptedException {
+        List<TestObserver<ApiResponse>> observers = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            observers.add(new TestObserver<>());
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(count);
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch subscribed = new CountDownLatch(count);
+        try {
+            for (TestObserver<ApiResponse> observer : observers) {
+                executor.execute(() -> {
+                    try {
+                        start.await();
+                        coalescer.validate(payload).subscribe(observer);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    } finally {
+                        subscribed.countDown();
+                    }
+                });
+            }
+            start.countDown();
+            assertTrue("Los suscriptores no terminaron a tiempo", subscribed.await(5, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+        return observers;
+    }
+}
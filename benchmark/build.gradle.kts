@@ -0,0 +1,22 @@
+plugins {
+    java
+    alias(libs.plugins.jmh)
+}
+
+java {
+    sourceCompatibility = JavaVersion.VERSION_11
+    targetCompatibility = JavaVersion.VERSION_11
+}
+
+dependencies {
+    jmh(project(":core"))
+    jmh(testFixtures(project(":core")))
+}
+
+// Modo, iteraciones y fork se declaran en cada benchmark: los de escaneo miden throughput y
+// los de sincronización, ejecuciones únicas (SingleShotTime).
+jmh {
+    jmhVersion.set(libs.versions.jmh)
+    profilers.add("gc")
+    resultFormat.set("JSON")
+}
@@ -0,0 +1,147 @@
+package com.svape.qr.coorapp.sync;
+
+import com.svape.qr.coorapp.backend.BackendException;
+import com.svape.qr.coorapp.backend.FaultInjector;
+import com.svape.qr.coorapp.backend.InMemorySyncBackend;
+import com.svape.qr.coorapp.model.BackupItem;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Sincronización completa y delta contra el backend en memoria. Cada operación es una
+ * sincronización entera (SingleShotTime); además del tiempo se reportan los viajes de red y
+ * los documentos leídos y escritos por operación. Ejecutar con
+ * {@code ./gradlew :benchmark:jmh -Pjmh.includes=SyncBenchmark}.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class SyncBenchmark {
+    private static final String USER = "benchmark";
+
+    @State(Scope.Benchmark)
+    public static class Remote {
+        @Param({"1000", "10000", "100000"})
+        public int items;
+
+        // Latencia simulada por viaje de red.
+        @Param({"0", "20"})
+        public long latencyMillis;
+
+        // Porcentaje de filas modificadas antes de cada sincronización delta.
+        @Param({"1"})
+        public int deltaPercent;
+
+        InMemorySyncBackend backend;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            backend = new InMemorySyncBackend(new FaultInjector(0).setLatencyMillis(latencyMillis));
+            List<BackupItem> seed = new ArrayList<>(items);
+            for (int i = 0; i < items; i++) {
+                BackupItem item = new BackupItem(String.format("ETQ%07d", i), 4.6 + i * 1e-6,
+                        -74.08 - i * 1e-6, "Observación " + i);
+                item.setUpdatedAt(1_000 + i);
+                item.setDeviceId("semilla");
+                seed.add(item);
+            }
+            backend.seed(USER, seed, 1, ContentHash.of(seed));
+        }
+    }
+
+    // Dispositivo nuevo: base local vacía en cada operación.
+    @State(Scope.Thread)
+    public static class FreshDevice {
+        InMemoryLocalStore local;
+        SyncEngine engine;
+
+        @Setup(Level.Invocation)
+        public void setUp(Remote remote) {
+            local = new InMemoryLocalStore();
+            engine = newEngine(remote.backend, local);
+            remote.backend.resetCounters();
+        }
+    }
+
+    // Dispositivo ya reconciliado que modificó deltaPercent% de sus filas desde la última vez.
+    @State(Scope.Thread)
+    public static class SyncedDevice {
+        InMemoryLocalStore local;
+        SyncEngine engine;
+        private long edits;
+
+        @Setup(Level.Trial)
+        public void setUp(Remote remote) throws BackendException {
+            local = new InMemoryLocalStore();
+            engine = newEngine(remote.backend, local);
+            engine.download(USER, SyncEngine.DOWNLOAD_PAGE_SIZE, saved -> { });
+        }
+
+        @Setup(Level.Invocation)
+        public void edit(Remote remote) {
+            List<BackupItem> items = local.liveItems(USER);
+            int changed = Math.max(1, items.size() * remote.deltaPercent / 100);
+            long now = System.currentTimeMillis();
+            for (int i = 0; i < changed; i++) {
+                BackupItem item = items.get((int) ((edits * changed + i) % items.size()));
+                item.setObservacion("Edición " + edits);
+                item.setUpdatedAt(now + i);
+                item.setDeviceId("benchmark");
+                local.save(USER, item, true);
+            }
+            edits++;
+            remote.backend.resetCounters();
+        }
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Operations {
+        public long roundTrips;
+        public long documentReads;
+        public long documentWrites;
+
+        void add(InMemorySyncBackend backend) {
+            roundTrips += backend.faults().getRoundTrips();
+            documentReads += backend.getDocumentReads();
+            documentWrites += backend.getDocumentWrites();
+        }
+    }
+
+    @Benchmark
+    public int fullSync(Remote remote, FreshDevice device, Operations operations) throws BackendException {
+        int downloaded = device.engine.download(USER, SyncEngine.DOWNLOAD_PAGE_SIZE, saved -> { });
+        operations.add(remote.backend);
+        return downloaded;
+    }
+
+    // Subida de los cambios más la comprobación de versión que hace la siguiente descarga.
+    @Benchmark
+    public int deltaSync(Remote remote, SyncedDevice device, Operations operations) throws BackendException {
+        int uploaded = device.engine.uploadPending(USER, "benchmark", "benchmark");
+        int downloaded = device.engine.download(USER, SyncEngine.DOWNLOAD_PAGE_SIZE, saved -> { });
+        operations.add(remote.backend);
+        return uploaded + downloaded;
+    }
+
+    private static SyncEngine newEngine(InMemorySyncBackend backend, InMemoryLocalStore local) {
+        return new SyncEngine(backend, local, new MonotonicClock(System::currentTimeMillis),
+                System::currentTimeMillis);
+    }
+}
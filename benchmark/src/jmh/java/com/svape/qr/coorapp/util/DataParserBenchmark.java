@@ -0,0 +1,121 @@
+package com.svape.qr.coorapp.util;
+
+import com.svape.qr.coorapp.model.BackupItem;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Rutas calientes de escaneo y entrada manual. Ejecutar con {@code ./gradlew :benchmark:jmh};
+ * el perfilador gc reporta {@code gc.alloc.rate.norm} (bytes por operación).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DataParserBenchmark {
+
+    public enum Shape {
+        SIMPLE("etiqueta1d:ABC123-latitud:10.12345-longitud:80.6789-observacion:Entrega en porteria",
+                "ABC123-10.12345-80.6789-Entrega en porteria"),
+        NEGATIVE("etiqueta1d:DEF456-latitud:-35.689512-longitud:-120.424301-observacion:Santiago",
+                "DEF456--35.689512--120.424301-Santiago"),
+        LONG_OBSERVATION("etiqueta1d:GHI789-latitud:4.60971-longitud:-74.08175-observacion:" + repeat(
+                "Paquete fragil, dejar con el vigilante del edificio y pedir firma - ", 30),
+                "GHI789-4.60971--74.08175-" + repeat(
+                        "Paquete fragil, dejar con el vigilante del edificio y pedir firma - ", 30)),
+        MALFORMED("etiqueta1d:-latitud:norte-longitud:1-2-3-observacion:",
+                "XYZ-texto-no-numerico-Observacion"),
+        UNICODE("etiqueta1d:ÑANDÚ日本-latitud:6.25184-longitud:-75.56359-observacion:Café con ñ 📦 — piso 3",
+                "ÑANDÚ日本-6.25184--75.56359-Café con ñ 📦 — piso 3");
+
+        final String payload;
+        final String manualInput;
+
+        Shape(String payload, String manualInput) {
+            this.payload = payload;
+            this.manualInput = manualInput;
+        }
+    }
+
+    @Param
+    public Shape shape;
+
+    private String payload;
+    private String manualInput;
+    private String[] parts;
+    private String[] scratchParts;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        payload = shape.payload;
+        manualInput = shape.manualInput;
+        parts = splitPayload(payload);
+        scratchParts = new String[parts.length];
+    }
+
+    @Benchmark
+    public BackupItem parseDataSinglePass() {
+        return QrPayloadParser.parse(payload);
+    }
+
+    @Benchmark
+    public BackupItem parseDataRegex() {
+        return DataParser.parseDataLegacy(payload);
+    }
+
+    @Benchmark
+    public void formatInput(Blackhole blackhole) {
+        try {
+            blackhole.consume(DataParser.formatInput(manualInput));
+        } catch (IllegalArgumentException e) {
+            blackhole.consume(e);
+        }
+    }
+
+    @Benchmark
+    public void validateAndTransformParts(Blackhole blackhole) {
+        // validateAndTransformParts reescribe el arreglo, se restaura en cada operación.
+        System.arraycopy(parts, 0, scratchParts, 0, parts.length);
+        try {
+            DataParser.validateAndTransformParts(scratchParts);
+            blackhole.consume(scratchParts);
+        } catch (IllegalArgumentException e) {
+            blackhole.consume(e);
+        }
+    }
+
+    // Las cuatro partes del payload de cada forma, como las separa el validador.
+    static String[] splitPayload(String payload) {
+        int latitud = payload.indexOf("-latitud:");
+        int longitud = payload.indexOf("-longitud:", latitud);
+        int observacion = payload.indexOf("-observacion:", longitud);
+        return new String[]{
+                payload.substring("etiqueta1d:".length(), latitud),
+                payload.substring(latitud + "-latitud:".length(), longitud),
+                payload.substring(longitud + "-longitud:".length(), observacion),
+                payload.substring(observacion + "-observacion:".length())
+        };
+    }
+
+    private static String repeat(String value, int times) {
+        StringBuilder sb = new StringBuilder(value.length() * times);
+        for (int i = 0; i < times; i++) {
+            sb.append(value);
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,13 @@
+plugins {
+    `java-library`
+    `java-test-fixtures`
+}
+
+java {
+    sourceCompatibility = JavaVersion.VERSION_11
+    targetCompatibility = JavaVersion.VERSION_11
+}
+
+dependencies {
+    testImplementation(libs.junit)
+}
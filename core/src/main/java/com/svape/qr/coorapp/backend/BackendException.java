@@ -0,0 +1,17 @@
+package com.svape.qr.coorapp.backend;
+
+/**
+ * Falla de una llamada al backend remoto (red, permisos, transacción abortada). La causa
+ * original queda en {@link #getCause()}.
+ */
+public class BackendException extends Exception {
+    private static final long serialVersionUID = 1L;
+
+    public BackendException(String message) {
+        super(message);
+    }
+
+    public BackendException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,29 @@
+package com.svape.qr.coorapp.backend;
+
+// Metadatos del documento padre del backup: versión, huella y conteo publicados.
+public final class RemoteMetadata {
+    public static final RemoteMetadata EMPTY = new RemoteMetadata(0, null, 0);
+
+    private final long version;
+    private final String contentHash;
+    private final int itemCount;
+
+    public RemoteMetadata(long version, String contentHash, int itemCount) {
+        this.version = version;
+        this.contentHash = contentHash;
+        this.itemCount = itemCount;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    // null si el último publicador no estaba reconciliado con el servidor.
+    public String getContentHash() {
+        return contentHash;
+    }
+
+    public int getItemCount() {
+        return itemCount;
+    }
+}
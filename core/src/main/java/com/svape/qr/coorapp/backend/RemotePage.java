@@ -0,0 +1,33 @@
+package com.svape.qr.coorapp.backend;
+
+import com.svape.qr.coorapp.model.BackupItem;
+import java.util.List;
+
+/**
+ * Una página de items ordenada por id de documento. {@code documentCount} cuenta también los
+ * documentos que no se pudieron decodificar, para que el paginador sepa si hay más.
+ */
+public final class RemotePage {
+    private final List<BackupItem> items;
+    private final String lastId;
+    private final int documentCount;
+
+    public RemotePage(List<BackupItem> items, String lastId, int documentCount) {
+        this.items = items;
+        this.lastId = lastId;
+        this.documentCount = documentCount;
+    }
+
+    public List<BackupItem> getItems() {
+        return items;
+    }
+
+    // Cursor para pedir la página siguiente; null si la página vino vacía.
+    public String getLastId() {
+        return lastId;
+    }
+
+    public int getDocumentCount() {
+        return documentCount;
+    }
+}
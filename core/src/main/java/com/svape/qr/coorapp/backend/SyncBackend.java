@@ -0,0 +1,35 @@
+package com.svape.qr.coorapp.backend;
+
+import com.svape.qr.coorapp.model.BackupItem;
+import java.util.List;
+
+/**
+ * Almacenamiento remoto del backup de cada usuario. Las llamadas son bloqueantes y se hacen
+ * fuera del hilo principal; cada una es un viaje de red (o varios, si la implementación
+ * necesita partir una escritura en lotes).
+ */
+public interface SyncBackend {
+
+    RemoteMetadata fetchMetadata(String username) throws BackendException;
+
+    // Hasta limit items con id de documento mayor que afterId (null para la primera página).
+    RemotePage fetchPage(String username, String afterId, int limit) throws BackendException;
+
+    // Escribe los items (uno por etiqueta, el último gana) y los metadatos de la subida. Si
+    // falla a mitad, los lotes ya confirmados quedan escritos.
+    void putItems(String username, List<BackupItem> items, String date, String deviceId)
+            throws BackendException;
+
+    /**
+     * Incrementa la versión del backup. La huella y el conteo solo se publican si la versión
+     * remota era {@code expectedVersion}; si no, se borran. Devuelve la versión nueva, o -1 si
+     * los metadatos no se publicaron.
+     */
+    long publishMetadata(String username, long expectedVersion, String contentHash, int itemCount)
+            throws BackendException;
+
+    // Borra las lápidas con deletedAt anterior a cutoff y devuelve cuántas eran.
+    int purgeTombstones(String username, long cutoff) throws BackendException;
+
+    void deleteBackup(String username) throws BackendException;
+}
@@ -0,0 +1,11 @@
+package com.svape.qr.coorapp.backend;
+
+// Cuentas de usuario en el backend remoto. Llamadas bloqueantes, fuera del hilo principal.
+public interface UserStore {
+
+    boolean validateUser(String username, String password) throws BackendException;
+
+    boolean usernameExists(String username) throws BackendException;
+
+    void registerUser(String username, String password) throws BackendException;
+}
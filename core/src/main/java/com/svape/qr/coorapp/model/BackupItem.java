@@ -1,10 +1,16 @@
 package com.svape.qr.coorapp.model;
 
 public class BackupItem {
+    // Clave primaria local de Room; 0 si el elemento aún no se ha guardado.
+    private long id;
     private String etiqueta1d;
     private double latitud;
     private double longitud;
     private String observacion;
+    private long updatedAt;
+    private String deviceId;
+    // Lápida: el elemento fue borrado y el borrado debe propagarse a los demás dispositivos.
+    private boolean deleted;
 
     public BackupItem() {
     }
@@ -16,6 +22,14 @@ public class BackupItem {
         this.observacion = observacion;
     }
 
+    public long getId() {
+        return id;
+    }
+
+    public void setId(long id) {
+        this.id = id;
+    }
+
     public String getEtiqueta1d() {
         return etiqueta1d;
     }
@@ -47,4 +61,28 @@ public class BackupItem {
     public void setObservacion(String observacion) {
         this.observacion = observacion;
     }
-}
\ No newline at end of file
+
+    public long getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(long updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    public String getDeviceId() {
+        return deviceId;
+    }
+
+    public void setDeviceId(String deviceId) {
+        this.deviceId = deviceId;
+    }
+
+    public boolean isDeleted() {
+        return deleted;
+    }
+
+    public void setDeleted(boolean deleted) {
+        this.deleted = deleted;
+    }
+}
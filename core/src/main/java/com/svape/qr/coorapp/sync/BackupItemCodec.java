@@ -0,0 +1,107 @@
+package com.svape.qr.coorapp.sync;
+
+import com.svape.qr.coorapp.model.BackupItem;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Conversión entre {@link BackupItem} y los documentos de Firestore en
+ * {@code backup/{username}/items/{id}}, además del arreglo {@code items} del formato anterior.
+ */
+public final class BackupItemCodec {
+    public static final String FIELD_ETIQUETA = "etiqueta1d";
+    public static final String FIELD_LATITUD = "latitud";
+    public static final String FIELD_LONGITUD = "longitud";
+    public static final String FIELD_OBSERVACION = "observacion";
+    public static final String FIELD_UPDATED_AT = "updatedAt";
+    public static final String FIELD_DEVICE_ID = "deviceId";
+    // Solo presente en lápidas; permite consultar por rango las que ya se pueden purgar.
+    public static final String FIELD_DELETED_AT = "deletedAt";
+
+    private BackupItemCodec() {
+    }
+
+    public static BackupItem fromMap(Map<String, Object> map) {
+        if (map == null) {
+            return null;
+        }
+
+        Object etiqueta = map.get(FIELD_ETIQUETA);
+        if (!(etiqueta instanceof String)) {
+            return null;
+        }
+
+        Object observacion = map.get(FIELD_OBSERVACION);
+        BackupItem item = new BackupItem(
+                (String) etiqueta,
+                toDouble(map.get(FIELD_LATITUD)),
+                toDouble(map.get(FIELD_LONGITUD)),
+                observacion instanceof String ? (String) observacion : null
+        );
+
+        Object updatedAt = map.get(FIELD_UPDATED_AT);
+        Object deviceId = map.get(FIELD_DEVICE_ID);
+        item.setUpdatedAt(updatedAt instanceof Number ? ((Number) updatedAt).longValue() : 0);
+        item.setDeviceId(deviceId instanceof String ? (String) deviceId : null);
+        item.setDeleted(map.get(FIELD_DELETED_AT) instanceof Number);
+        return item;
+    }
+
+    public static List<BackupItem> fromMaps(List<Map<String, Object>> maps) {
+        List<BackupItem> items = new ArrayList<>();
+        if (maps == null) {
+            return items;
+        }
+
+        for (Map<String, Object> map : maps) {
+            BackupItem item = fromMap(map);
+            if (item != null) {
+                items.add(item);
+            }
+        }
+        return items;
+    }
+
+    public static Map<String, Object> toMap(BackupItem item) {
+        Map<String, Object> map = new HashMap<>();
+        map.put(FIELD_ETIQUETA, item.getEtiqueta1d());
+        map.put(FIELD_LATITUD, item.getLatitud());
+        map.put(FIELD_LONGITUD, item.getLongitud());
+        map.put(FIELD_OBSERVACION, item.getObservacion());
+        map.put(FIELD_UPDATED_AT, item.getUpdatedAt());
+        map.put(FIELD_DEVICE_ID, item.getDeviceId());
+        if (item.isDeleted()) {
+            map.put(FIELD_DELETED_AT, item.getUpdatedAt());
+        }
+        return map;
+    }
+
+    // Firestore no admite '/' en un id ni los ids ".", ".." o "__*__"; se escapan con '%' para que
+    // la conversión sea reversible y dos etiquetas distintas nunca compartan documento.
+    public static String documentIdFor(String etiqueta) {
+        StringBuilder sb = new StringBuilder(etiqueta.length() + 8);
+        for (int i = 0; i < etiqueta.length(); i++) {
+            char c = etiqueta.charAt(i);
+            if (c == '%') {
+                sb.append("%25");
+            } else if (c == '/') {
+                sb.append("%2F");
+            } else {
+                sb.append(c);
+            }
+        }
+
+        String id = sb.toString();
+        if (id.isEmpty() || id.equals(".") || id.equals("..")
+                || (id.length() >= 4 && id.startsWith("__") && id.endsWith("__"))) {
+            return "%" + id;
+        }
+        return id;
+    }
+
+    private static double toDouble(Object value) {
+        return value instanceof Number ? ((Number) value).doubleValue() : 0;
+    }
+}
@@ -0,0 +1,79 @@
+package com.svape.qr.coorapp.sync;
+
+import com.svape.qr.coorapp.model.BackupItem;
+
+/**
+ * Huella del contenido de un backup que no depende del orden de los elementos: cada elemento
+ * se resume en 64 bits y las huellas se suman, así que se puede calcular recorriendo un cursor
+ * sin cargar la lista completa.
+ */
+public final class ContentHash {
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private long sum;
+    private int count;
+
+    public ContentHash add(BackupItem item) {
+        return add(item.getEtiqueta1d(), item.getLatitud(), item.getLongitud(), item.getObservacion());
+    }
+
+    public ContentHash add(String etiqueta, double latitud, double longitud, String observacion) {
+        sum += itemHash(etiqueta, latitud, longitud, observacion);
+        count++;
+        return this;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public String value() {
+        String hex = Long.toHexString(sum);
+        return "0000000000000000".substring(hex.length()) + hex;
+    }
+
+    public static String of(Iterable<BackupItem> items) {
+        ContentHash hash = new ContentHash();
+        for (BackupItem item : items) {
+            hash.add(item);
+        }
+        return hash.value();
+    }
+
+    static long itemHash(String etiqueta, double latitud, double longitud, String observacion) {
+        long h = FNV_OFFSET;
+        h = mix(h, etiqueta);
+        h = mix(h, Double.doubleToLongBits(latitud));
+        h = mix(h, Double.doubleToLongBits(longitud));
+        h = mix(h, observacion);
+        return finish(h);
+    }
+
+    // Con null y "" distintos, y con la longitud incluida, los campos no se confunden entre sí.
+    private static long mix(long h, String value) {
+        if (value == null) {
+            return mix(h, -1L);
+        }
+        h = mix(h, value.length());
+        for (int i = 0; i < value.length(); i++) {
+            h = (h ^ value.charAt(i)) * FNV_PRIME;
+        }
+        return h;
+    }
+
+    private static long mix(long h, long value) {
+        for (int i = 0; i < 8; i++) {
+            h = (h ^ (value & 0xff)) * FNV_PRIME;
+            value >>>= 8;
+        }
+        return h;
+    }
+
+    // Finalizador de SplitMix64: evita que la suma de huellas FNV parecidas se cancele.
+    private static long finish(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,41 @@
+package com.svape.qr.coorapp.sync;
+
+import com.svape.qr.coorapp.model.BackupItem;
+import java.util.List;
+
+/**
+ * Puerto hacia el almacenamiento local usado por {@link SyncEngine}. En la app lo implementa
+ * Room, con una base por usuario; las llamadas son bloqueantes y se hacen fuera del hilo
+ * principal.
+ */
+public interface LocalStore {
+
+    // Ejecuta body en una sola transacción; las llamadas anidadas se unen a la exterior.
+    void runInTransaction(String username, Runnable body);
+
+    // Filas del usuario con esas etiquetas, lápidas incluidas.
+    List<BackupItem> findByEtiquetas(String username, List<String> etiquetas);
+
+    // Inserta o reemplaza versiones remotas como filas ya sincronizadas; las que traen id
+    // reemplazan esa fila.
+    void replaceAll(String username, List<BackupItem> items, long syncedAt);
+
+    // Marca como pendientes de subir las filas que aún no lo estén.
+    void markDirty(String username, List<Long> ids);
+
+    List<BackupItem> getDirty(String username);
+
+    // Limpia la marca solo en las filas que no cambiaron durante la subida (mismo updatedAt).
+    int markSynced(String username, List<BackupItem> items, long syncedAt);
+
+    int purgeTombstones(String username, long cutoff);
+
+    // Huella de las filas vivas del usuario.
+    ContentHash contentHash(String username);
+
+    SyncState getSyncState(String username);
+
+    void saveSyncState(SyncState state);
+
+    void deleteSyncState(String username);
+}
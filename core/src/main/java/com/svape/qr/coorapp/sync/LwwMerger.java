@@ -0,0 +1,64 @@
+package com.svape.qr.coorapp.sync;
+
+import com.svape.qr.coorapp.model.BackupItem;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Conjunto last-writer-wins por etiqueta. Cada versión de un elemento se ordena por
+ * {@code (updatedAt, deviceId)}; los empates restantes se rompen por borrado y contenido, así
+ * que todos los dispositivos eligen la misma versión sin importar el orden en que la reciben.
+ */
+public final class LwwMerger {
+    // Una lápida se purga cuando todos los dispositivos activos ya la vieron; sin registro de
+    // dispositivos se aproxima con este plazo.
+    public static final long TOMBSTONE_TTL_MILLIS = TimeUnit.DAYS.toMillis(30);
+
+    private LwwMerger() {
+    }
+
+    public static int compare(BackupItem a, BackupItem b) {
+        int result = Long.compare(a.getUpdatedAt(), b.getUpdatedAt());
+        if (result != 0) {
+            return result;
+        }
+        result = compareNullable(a.getDeviceId(), b.getDeviceId());
+        if (result != 0) {
+            return result;
+        }
+        result = Boolean.compare(a.isDeleted(), b.isDeleted());
+        if (result != 0) {
+            return result;
+        }
+        result = compareNullable(a.getEtiqueta1d(), b.getEtiqueta1d());
+        if (result != 0) {
+            return result;
+        }
+        result = Double.compare(a.getLatitud(), b.getLatitud());
+        if (result != 0) {
+            return result;
+        }
+        result = Double.compare(a.getLongitud(), b.getLongitud());
+        if (result != 0) {
+            return result;
+        }
+        return compareNullable(a.getObservacion(), b.getObservacion());
+    }
+
+    public static boolean wins(BackupItem candidate, BackupItem current) {
+        return compare(candidate, current) > 0;
+    }
+
+    private static int compareNullable(String a, String b) {
+        if (Objects.equals(a, b)) {
+            return 0;
+        }
+        if (a == null) {
+            return -1;
+        }
+        if (b == null) {
+            return 1;
+        }
+        return a.compareTo(b);
+    }
+}
@@ -0,0 +1,29 @@
+package com.svape.qr.coorapp.sync;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Reloj para las marcas {@code updatedAt}: nunca retrocede ni repite valores, y al observar una
+ * marca remota posterior avanza hasta ella, así una edición local hecha después de recibir un
+ * cambio siempre lo supera aunque el reloj del otro dispositivo vaya adelantado.
+ */
+public final class MonotonicClock {
+    private final LongSupplier wallClock;
+    private long last;
+
+    public MonotonicClock(LongSupplier wallClock) {
+        this.wallClock = wallClock;
+    }
+
+    public synchronized long now() {
+        long wall = wallClock.getAsLong();
+        last = wall > last ? wall : last + 1;
+        return last;
+    }
+
+    public synchronized void observe(long remoteTimestamp) {
+        if (remoteTimestamp > last) {
+            last = remoteTimestamp;
+        }
+    }
+}
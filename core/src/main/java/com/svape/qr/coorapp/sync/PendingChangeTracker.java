@@ -0,0 +1,90 @@
+package com.svape.qr.coorapp.sync;
+
+import com.svape.qr.coorapp.model.BackupItem;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * Cuenta en memoria los cambios locales que aún no cubre ninguna sincronización programada,
+ * para aplicar {@link SyncPolicy} sin consultar la tabla en cada escaneo. Al programar una
+ * sincronización el contador vuelve a cero: si esa sincronización falla se reintenta sola y
+ * las filas siguen pendientes en Room.
+ */
+public final class PendingChangeTracker {
+    // Campos numéricos de un item codificado: latitud, longitud y updatedAt.
+    private static final int FIXED_ITEM_BYTES = 3 * Long.BYTES;
+
+    private final SyncPolicy policy;
+    private final LongSupplier clock;
+    private final Map<String, Pending> pendingByUser = new HashMap<>();
+
+    public PendingChangeTracker(SyncPolicy policy, LongSupplier clock) {
+        this.policy = policy;
+        this.clock = clock;
+    }
+
+    // Registra un cambio; si la política decide sincronizar, el cambio queda cubierto.
+    public synchronized SyncPolicy.Decision recordChange(String username, BackupItem item,
+                                                         SyncPolicy.Connectivity connectivity) {
+        Pending pending = pending(username);
+        pending.items++;
+        pending.bytes += estimateBytes(item);
+
+        SyncPolicy.Decision decision = policy.evaluate(pending.items, pending.bytes,
+                clock.getAsLong() - pending.lastSyncAt, connectivity);
+        if (decision == SyncPolicy.Decision.SYNC) {
+            pending.reset(clock.getAsLong());
+        }
+        return decision;
+    }
+
+    // Se programó una sincronización por otra vía (apertura, botón): cubre todo lo pendiente.
+    public synchronized void markScheduled(String username) {
+        pending(username).reset(clock.getAsLong());
+    }
+
+    public synchronized int getPendingItems(String username) {
+        return pending(username).items;
+    }
+
+    public synchronized long getPendingBytes(String username) {
+        return pending(username).bytes;
+    }
+
+    static long estimateBytes(BackupItem item) {
+        return FIXED_ITEM_BYTES + utf8Length(item.getEtiqueta1d()) + utf8Length(item.getObservacion())
+                + utf8Length(item.getDeviceId());
+    }
+
+    private static int utf8Length(String value) {
+        return value != null ? value.getBytes(StandardCharsets.UTF_8).length : 0;
+    }
+
+    // La antigüedad se cuenta desde el primer cambio visto si aún no hubo sincronización.
+    private Pending pending(String username) {
+        Pending pending = pendingByUser.get(username);
+        if (pending == null) {
+            pending = new Pending(clock.getAsLong());
+            pendingByUser.put(username, pending);
+        }
+        return pending;
+    }
+
+    private static final class Pending {
+        int items;
+        long bytes;
+        long lastSyncAt;
+
+        Pending(long lastSyncAt) {
+            this.lastSyncAt = lastSyncAt;
+        }
+
+        void reset(long now) {
+            items = 0;
+            bytes = 0;
+            lastSyncAt = now;
+        }
+    }
+}
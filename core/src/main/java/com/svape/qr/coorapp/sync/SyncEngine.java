@@ -0,0 +1,239 @@
+package com.svape.qr.coorapp.sync;
+
+import com.svape.qr.coorapp.backend.BackendException;
+import com.svape.qr.coorapp.backend.RemoteMetadata;
+import com.svape.qr.coorapp.backend.RemotePage;
+import com.svape.qr.coorapp.backend.SyncBackend;
+import com.svape.qr.coorapp.model.BackupItem;
+import com.svape.qr.coorapp.util.Batches;
+import com.svape.qr.coorapp.util.Logs;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntConsumer;
+import java.util.function.LongSupplier;
+
+/**
+ * Sincronización del backup local con un {@link SyncBackend}: descarga paginada con
+ * resolución LWW, subida de filas pendientes, publicación de metadatos y purga de lápidas.
+ * Cada página descargada y cada lote subido dejan un punto de control en {@link SyncState},
+ * así que una sincronización interrumpida continúa donde quedó. Es bloqueante; quien la
+ * llama decide el hilo.
+ */
+public final class SyncEngine {
+    private static final String TAG = "SyncEngine";
+    // Elementos por página de descarga; cada página se aplica en una sola transacción.
+    public static final int DOWNLOAD_PAGE_SIZE = 500;
+    // Elementos por lote de subida; junto con el documento padre llenan un WriteBatch de Firestore.
+    public static final int UPLOAD_BATCH_SIZE = 499;
+    private static final long TOMBSTONE_PURGE_INTERVAL_MILLIS = TimeUnit.DAYS.toMillis(1);
+
+    private final SyncBackend backend;
+    private final LocalStore localStore;
+    private final MonotonicClock clock;
+    private final LongSupplier wallClock;
+    private final Map<String, Long> lastTombstonePurge = new ConcurrentHashMap<>();
+
+    public SyncEngine(SyncBackend backend, LocalStore localStore, MonotonicClock clock, LongSupplier wallClock) {
+        this.backend = backend;
+        this.localStore = localStore;
+        this.clock = clock;
+        this.wallClock = wallClock;
+    }
+
+    /**
+     * Descarga el backup remoto página a página; cada página se resuelve contra las filas
+     * locales antes de pedir la siguiente y progress recibe el total de documentos procesados.
+     * Si la versión y la huella remotas coinciden con el último estado reconciliado no se
+     * descarga nada; si una descarga de la misma versión quedó a medias, sigue tras su cursor.
+     * Devuelve el número de documentos descargados en esta llamada.
+     */
+    public int download(String username, int pageSize, IntConsumer progress) throws BackendException {
+        Logs.d(TAG, "Intentando recuperar datos remotos para usuario: " + username);
+
+        RemoteMetadata remote = backend.fetchMetadata(username);
+        SyncState state = localStore.getSyncState(username);
+        if (state != null && remote.getContentHash() != null
+                && state.getRemoteVersion() == remote.getVersion()
+                && remote.getContentHash().equals(state.getContentHash())) {
+            Logs.d(TAG, "Backup remoto sin cambios (versión " + remote.getVersion() + "), se omite la descarga");
+            return 0;
+        }
+
+        // Si la versión cambió, documentos anteriores al cursor pueden haber cambiado: desde cero.
+        String afterId = null;
+        boolean resumed = state != null && state.getDownloadCursor() != null
+                && state.getDownloadVersion() == remote.getVersion();
+        if (resumed) {
+            afterId = state.getDownloadCursor();
+            Logs.d(TAG, "Reanudando descarga de la versión " + remote.getVersion() + " tras " + afterId);
+        }
+
+        SyncState checkpoint = state != null ? state : SyncState.unreconciled(username, wallClock.getAsLong());
+        int saved = 0;
+        while (true) {
+            RemotePage page = backend.fetchPage(username, afterId, pageSize);
+            if (page.getDocumentCount() == 0) {
+                break;
+            }
+
+            afterId = page.getLastId();
+            checkpoint = checkpoint.withDownloadCheckpoint(remote.getVersion(), afterId, wallClock.getAsLong());
+            applyRemotePage(page.getItems(), username, checkpoint);
+            saved += page.getDocumentCount();
+            progress.accept(saved);
+            if (page.getDocumentCount() < pageSize) {
+                break;
+            }
+        }
+
+        localStore.saveSyncState(new SyncState(username, remote.getVersion(), remote.getContentHash(),
+                remote.getItemCount(), wallClock.getAsLong(), SyncState.NO_VERSION, null,
+                checkpoint.isUploadUnpublished()));
+        Logs.d(TAG, "Descarga completada para usuario: " + username + ", documentos: " + saved);
+
+        // Tras un conflicto la huella remota queda borrada hasta la próxima subida y, mientras
+        // tanto, todos los dispositivos descargan completo. Recién reconciliado y sin cambios
+        // propios, el backup local es el remoto: se vuelve a publicar su huella.
+        if (remote.getContentHash() == null && (saved > 0 || resumed) && localStore.getDirty(username).isEmpty()) {
+            try {
+                publishMetadata(username);
+            } catch (BackendException e) {
+                Logs.e(TAG, "Error republicando la huella del backup", e);
+            }
+        }
+        return saved;
+    }
+
+    /**
+     * Sube solo las filas modificadas desde la última sincronización, por lotes que se marcan
+     * como sincronizados al confirmarse; después publica los metadatos y purga las lápidas
+     * vencidas. Si una subida anterior quedó sin publicar, la publica aunque no haya filas
+     * nuevas. Devuelve cuántas filas se subieron.
+     */
+    public int uploadPending(String username, String date, String deviceId) throws BackendException {
+        List<BackupItem> dirty = localStore.getDirty(username);
+        SyncState state = localStore.getSyncState(username);
+        boolean unpublished = state != null && state.isUploadUnpublished();
+        if (dirty.isEmpty() && !unpublished) {
+            Logs.d(TAG, "No hay cambios pendientes para sincronizar");
+        } else {
+            if (unpublished) {
+                Logs.d(TAG, "Retomando subida interrumpida para usuario: " + username);
+            } else {
+                // Se marca antes del primer lote: si se corta después, la publicación queda pendiente.
+                SyncState base = state != null ? state : SyncState.unreconciled(username, wallClock.getAsLong());
+                localStore.saveSyncState(base.withUploadUnpublished(true, wallClock.getAsLong()));
+            }
+
+            Logs.d(TAG, "Sincronizando " + dirty.size() + " elementos para usuario: " + username);
+            int marked = 0;
+            for (List<BackupItem> batch : Batches.partition(dirty, UPLOAD_BATCH_SIZE)) {
+                backend.putItems(username, batch, date, deviceId);
+                marked += localStore.markSynced(username, batch, wallClock.getAsLong());
+            }
+            publishMetadata(username);
+            Logs.d(TAG, "Subidos " + dirty.size() + " cambios, marcados como sincronizados: " + marked);
+        }
+
+        try {
+            purgeExpiredTombstones(username);
+        } catch (BackendException e) {
+            Logs.e(TAG, "Error purgando lápidas", e);
+        }
+        return dirty.size();
+    }
+
+    public void deleteBackup(String username) throws BackendException {
+        backend.deleteBackup(username);
+        localStore.deleteSyncState(username);
+        Logs.d(TAG, "Backup remoto eliminado para el usuario: " + username);
+    }
+
+    // Resuelve una página descargada contra las filas locales en una sola transacción: la
+    // versión remota que gana reemplaza a la local (conservando su id); si gana la local, la
+    // fila queda pendiente para que el servidor, que sobrescribe sin comparar, la reciba.
+    void applyRemotePage(List<BackupItem> remote, String username) {
+        applyRemotePage(remote, username, null);
+    }
+
+    // El punto de control de la página se guarda en la misma transacción que sus filas.
+    private void applyRemotePage(List<BackupItem> remote, String username, SyncState checkpoint) {
+        if (remote.isEmpty()) {
+            if (checkpoint != null) {
+                localStore.saveSyncState(checkpoint);
+            }
+            return;
+        }
+
+        localStore.runInTransaction(username, () -> {
+            List<String> etiquetas = new ArrayList<>(remote.size());
+            for (BackupItem item : remote) {
+                etiquetas.add(item.getEtiqueta1d());
+            }
+            Map<String, BackupItem> local = new HashMap<>();
+            for (BackupItem item : localStore.findByEtiquetas(username, etiquetas)) {
+                local.put(item.getEtiqueta1d(), item);
+            }
+
+            List<BackupItem> accepted = new ArrayList<>();
+            List<Long> localWins = new ArrayList<>();
+            for (BackupItem item : remote) {
+                clock.observe(item.getUpdatedAt());
+                BackupItem existing = local.get(item.getEtiqueta1d());
+                if (existing == null || LwwMerger.wins(item, existing)) {
+                    if (existing != null) {
+                        item.setId(existing.getId());
+                    }
+                    accepted.add(item);
+                } else if (LwwMerger.compare(item, existing) != 0) {
+                    localWins.add(existing.getId());
+                }
+            }
+
+            localStore.replaceAll(username, accepted, wallClock.getAsLong());
+            if (!localWins.isEmpty()) {
+                localStore.markDirty(username, localWins);
+            }
+            if (checkpoint != null) {
+                localStore.saveSyncState(checkpoint);
+            }
+        });
+    }
+
+    // version se incrementa en cada publicación. La huella y el conteo solo se publican si el
+    // backup local estaba reconciliado con la versión anterior; si otro dispositivo escribió
+    // entretanto se borran, y el próximo en descargarlo todo los vuelve a publicar.
+    private void publishMetadata(String username) throws BackendException {
+        ContentHash hash = localStore.contentHash(username);
+        SyncState state = localStore.getSyncState(username);
+        long expectedVersion = state != null ? state.getRemoteVersion() : SyncState.NO_VERSION;
+
+        long version = backend.publishMetadata(username, expectedVersion, hash.value(), hash.getCount());
+        if (version >= 0) {
+            localStore.saveSyncState(new SyncState(username, version, hash.value(), hash.getCount(),
+                    wallClock.getAsLong()));
+        } else if (state != null) {
+            localStore.saveSyncState(state.withUploadUnpublished(false, wallClock.getAsLong()));
+        }
+        Logs.d(TAG, "Metadatos publicados para usuario: " + username + ", versión: " + version);
+    }
+
+    // Las lápidas se conservan TOMBSTONE_TTL_MILLIS para que los dispositivos que sincronizan
+    // con poca frecuencia reciban el borrado; se revisa como mucho una vez al día por usuario.
+    private void purgeExpiredTombstones(String username) throws BackendException {
+        long now = wallClock.getAsLong();
+        Long last = lastTombstonePurge.get(username);
+        if (last != null && now - last < TOMBSTONE_PURGE_INTERVAL_MILLIS) {
+            return;
+        }
+
+        long cutoff = now - LwwMerger.TOMBSTONE_TTL_MILLIS;
+        Logs.d(TAG, "Lápidas locales purgadas: " + localStore.purgeTombstones(username, cutoff));
+        Logs.d(TAG, "Lápidas remotas purgadas: " + backend.purgeTombstones(username, cutoff));
+        lastTombstonePurge.put(username, now);
+    }
+}
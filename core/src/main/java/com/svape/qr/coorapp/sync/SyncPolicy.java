@@ -0,0 +1,52 @@
+package com.svape.qr.coorapp.sync;
+
+/**
+ * Decide si los cambios locales acumulados justifican una sincronización. Se dispara al
+ * superar cualquiera de los umbrales; en una red medida el umbral de elementos es otro, para
+ * agrupar más cambios por subida.
+ */
+public final class SyncPolicy {
+
+    public enum Connectivity {
+        NONE,
+        METERED,
+        UNMETERED
+    }
+
+    public enum Decision {
+        WAIT,
+        SYNC
+    }
+
+    private final int maxPendingItems;
+    private final int meteredMaxPendingItems;
+    private final long maxPendingBytes;
+    private final long maxStalenessMillis;
+
+    public SyncPolicy(int maxPendingItems, int meteredMaxPendingItems, long maxPendingBytes,
+                      long maxStalenessMillis) {
+        if (maxPendingItems < 1 || meteredMaxPendingItems < 1 || maxPendingBytes < 1 || maxStalenessMillis < 0) {
+            throw new IllegalArgumentException("Umbrales de sincronización inválidos");
+        }
+        this.maxPendingItems = maxPendingItems;
+        this.meteredMaxPendingItems = meteredMaxPendingItems;
+        this.maxPendingBytes = maxPendingBytes;
+        this.maxStalenessMillis = maxStalenessMillis;
+    }
+
+    public Decision evaluate(int pendingItems, long pendingBytes, long millisSinceLastSync,
+                             Connectivity connectivity) {
+        // Sin red los cambios siguen acumulándose; se decide en el próximo cambio con conexión.
+        if (pendingItems == 0 || connectivity == Connectivity.NONE) {
+            return Decision.WAIT;
+        }
+
+        int itemLimit = connectivity == Connectivity.METERED ? meteredMaxPendingItems : maxPendingItems;
+        if (pendingItems >= itemLimit
+                || pendingBytes >= maxPendingBytes
+                || millisSinceLastSync >= maxStalenessMillis) {
+            return Decision.SYNC;
+        }
+        return Decision.WAIT;
+    }
+}
@@ -0,0 +1,85 @@
+package com.svape.qr.coorapp.sync;
+
+/**
+ * Último estado remoto con el que el backup local quedó reconciliado, más los puntos de control
+ * de una sincronización interrumpida: el cursor de la descarga en curso y si hay lotes ya
+ * subidos cuyos metadatos aún no se publicaron.
+ */
+public final class SyncState {
+    // remoteVersion de un usuario que aún no terminó ninguna reconciliación.
+    public static final long NO_VERSION = -1;
+
+    private final String username;
+    private final long remoteVersion;
+    private final String contentHash;
+    private final int itemCount;
+    private final long updatedAt;
+    private final long downloadVersion;
+    private final String downloadCursor;
+    private final boolean uploadUnpublished;
+
+    public SyncState(String username, long remoteVersion, String contentHash, int itemCount, long updatedAt) {
+        this(username, remoteVersion, contentHash, itemCount, updatedAt, NO_VERSION, null, false);
+    }
+
+    public SyncState(String username, long remoteVersion, String contentHash, int itemCount, long updatedAt,
+                     long downloadVersion, String downloadCursor, boolean uploadUnpublished) {
+        this.username = username;
+        this.remoteVersion = remoteVersion;
+        this.contentHash = contentHash;
+        this.itemCount = itemCount;
+        this.updatedAt = updatedAt;
+        this.downloadVersion = downloadVersion;
+        this.downloadCursor = downloadCursor;
+        this.uploadUnpublished = uploadUnpublished;
+    }
+
+    // Estado de partida para guardar puntos de control antes de la primera reconciliación.
+    public static SyncState unreconciled(String username, long updatedAt) {
+        return new SyncState(username, NO_VERSION, null, 0, updatedAt);
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public long getRemoteVersion() {
+        return remoteVersion;
+    }
+
+    public String getContentHash() {
+        return contentHash;
+    }
+
+    public int getItemCount() {
+        return itemCount;
+    }
+
+    public long getUpdatedAt() {
+        return updatedAt;
+    }
+
+    // Versión remota que se estaba descargando; el cursor solo vale mientras no cambie.
+    public long getDownloadVersion() {
+        return downloadVersion;
+    }
+
+    // Id del último documento ya aplicado de la descarga en curso, o null si no hay ninguna.
+    public String getDownloadCursor() {
+        return downloadCursor;
+    }
+
+    public boolean isUploadUnpublished() {
+        return uploadUnpublished;
+    }
+
+    public SyncState withDownloadCheckpoint(long version, String cursor, long now) {
+        return new SyncState(username, remoteVersion, contentHash, itemCount, now, version, cursor,
+                uploadUnpublished);
+    }
+
+    public SyncState withUploadUnpublished(boolean unpublished, long now) {
+        return new SyncState(username, remoteVersion, contentHash, itemCount, now, downloadVersion,
+                downloadCursor, unpublished);
+    }
+}
@@ -0,0 +1,27 @@
+package com.svape.qr.coorapp.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+public final class Batches {
+
+    private Batches() {
+    }
+
+    // Vistas consecutivas de como máximo size elementos sobre la lista original.
+    public static <T> List<List<T>> partition(List<T> items, int size) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("El tamaño del lote debe ser positivo: " + size);
+        }
+        if (items.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        List<List<T>> batches = new ArrayList<>((items.size() + size - 1) / size);
+        for (int start = 0; start < items.size(); start += size) {
+            batches.add(items.subList(start, Math.min(items.size(), start + size)));
+        }
+        return batches;
+    }
+}
@@ -1,6 +1,5 @@
 package com.svape.qr.coorapp.util;
 
-import android.util.Log;
 import com.svape.qr.coorapp.model.BackupItem;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -8,8 +7,27 @@ import java.util.regex.Pattern;
 public class DataParser {
     private static final String TAG = "DataParser";
 
+    public enum Engine { REGEX, SINGLE_PASS }
+
+    private static volatile Engine engine = Engine.SINGLE_PASS;
+
+    public static void setEngine(Engine newEngine) {
+        engine = newEngine;
+    }
+
+    public static Engine getEngine() {
+        return engine;
+    }
+
     public static BackupItem parseData(String data) {
-        Log.d(TAG, "Parseando data: " + data);
+        if (engine == Engine.REGEX) {
+            return parseDataLegacy(data);
+        }
+        return QrPayloadParser.parse(data);
+    }
+
+    static BackupItem parseDataLegacy(String data) {
+        Logs.d(TAG, "Parseando data: " + data);
 
         BackupItem item = new BackupItem();
 
@@ -23,19 +41,19 @@ public class DataParser {
             if (etiquetaMatcher.find()) {
                 String etiqueta = etiquetaMatcher.group(1);
                 item.setEtiqueta1d(etiqueta);
-                Log.d(TAG, "Etiqueta extraída: " + etiqueta);
+                Logs.d(TAG, "Etiqueta extraída: " + etiqueta);
             }
 
             Matcher latitudMatcher = latitudPattern.matcher(data);
             if (latitudMatcher.find()) {
                 try {
                     String latitudStr = latitudMatcher.group(1);
-                    Log.d(TAG, "Latitud string: " + latitudStr);
+                    Logs.d(TAG, "Latitud string: " + latitudStr);
                     double latitud = Double.parseDouble(latitudStr);
                     item.setLatitud(latitud);
-                    Log.d(TAG, "Latitud extraída: " + latitud);
+                    Logs.d(TAG, "Latitud extraída: " + latitud);
                 } catch (NumberFormatException e) {
-                    Log.e(TAG, "Error al parsear latitud: " + e.getMessage(), e);
+                    Logs.e(TAG, "Error al parsear latitud: " + e.getMessage(), e);
                 }
             }
 
@@ -43,12 +61,12 @@ public class DataParser {
             if (longitudMatcher.find()) {
                 try {
                     String longitudStr = longitudMatcher.group(1);
-                    Log.d(TAG, "Longitud string: " + longitudStr);
+                    Logs.d(TAG, "Longitud string: " + longitudStr);
                     double longitud = Double.parseDouble(longitudStr);
                     item.setLongitud(longitud);
-                    Log.d(TAG, "Longitud extraída: " + longitud);
+                    Logs.d(TAG, "Longitud extraída: " + longitud);
                 } catch (NumberFormatException e) {
-                    Log.e(TAG, "Error al parsear longitud: " + e.getMessage(), e);
+                    Logs.e(TAG, "Error al parsear longitud: " + e.getMessage(), e);
                 }
             }
 
@@ -56,17 +74,17 @@ public class DataParser {
             if (observacionMatcher.find()) {
                 String observacion = observacionMatcher.group(1);
                 item.setObservacion(observacion);
-                Log.d(TAG, "Observación extraída: " + observacion);
+                Logs.d(TAG, "Observación extraída: " + observacion);
             }
         } catch (Exception e) {
-            Log.e(TAG, "Error al parsear datos: " + e.getMessage(), e);
+            Logs.e(TAG, "Error al parsear datos: " + e.getMessage(), e);
         }
 
         return item;
     }
 
     public static String formatInput(String input) {
-        Log.d(TAG, "Entrada original: " + input);
+        Logs.d(TAG, "Entrada original: " + input);
 
         String[] parts = new String[4];
 
@@ -117,7 +135,7 @@ public class DataParser {
                 parts[3] = input.substring(nextDashIndex + 1).trim();
             }
 
-            Log.d(TAG, "Componentes extraídos - Etiqueta: '" + parts[0] +
+            Logs.d(TAG, "Componentes extraídos - Etiqueta: '" + parts[0] +
                     "', Latitud: '" + parts[1] +
                     "', Longitud: '" + parts[2] +
                     "', Observación: '" + parts[3] + "'");
@@ -129,18 +147,18 @@ public class DataParser {
                     "-longitud:" + parts[2] +
                     "-observacion:" + parts[3];
 
-            Log.d(TAG, "Entrada formateada: " + formattedInput);
+            Logs.d(TAG, "Entrada formateada: " + formattedInput);
             return formattedInput;
 
         } catch (IllegalArgumentException e) {
             throw e;
         } catch (Exception e) {
-            Log.e(TAG, "Error al formatear entrada: " + e.getMessage(), e);
+            Logs.e(TAG, "Error al formatear entrada: " + e.getMessage(), e);
             throw new IllegalArgumentException("Error al procesar entrada: " + e.getMessage());
         }
     }
 
-    private static void validateAndTransformParts(String[] parts) {
+    static void validateAndTransformParts(String[] parts) {
         if (parts[0] == null || parts[0].isEmpty()) {
             throw new IllegalArgumentException("La etiqueta no puede estar vacía");
         }
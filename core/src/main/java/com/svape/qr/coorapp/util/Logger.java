@@ -0,0 +1,21 @@
+package com.svape.qr.coorapp.util;
+
+/**
+ * Puerto de logging del módulo core. La app instala una implementación sobre
+ * android.util.Log; en la JVM (tests, benchmarks) no se escribe nada.
+ */
+public interface Logger {
+    Logger NONE = new Logger() {
+        @Override
+        public void d(String tag, String message) {
+        }
+
+        @Override
+        public void e(String tag, String message, Throwable error) {
+        }
+    };
+
+    void d(String tag, String message);
+
+    void e(String tag, String message, Throwable error);
+}
@@ -0,0 +1,24 @@
+package com.svape.qr.coorapp.util;
+
+public final class Logs {
+    private static volatile Logger logger = Logger.NONE;
+
+    private Logs() {
+    }
+
+    public static void install(Logger newLogger) {
+        logger = newLogger != null ? newLogger : Logger.NONE;
+    }
+
+    public static void d(String tag, String message) {
+        logger.d(tag, message);
+    }
+
+    public static void e(String tag, String message) {
+        logger.e(tag, message, null);
+    }
+
+    public static void e(String tag, String message, Throwable error) {
+        logger.e(tag, message, error);
+    }
+}
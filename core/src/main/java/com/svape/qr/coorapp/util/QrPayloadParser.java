@@ -0,0 +1,186 @@
+package com.svape.qr.coorapp.util;
+
+import com.svape.qr.coorapp.model.BackupItem;
+
+/**
+ * Parser de un solo recorrido para {@code etiqueta1d:...-latitud:...-longitud:...-observacion:...}.
+ * Da los mismos resultados que las expresiones regulares de {@link DataParser#parseDataLegacy(String)}
+ * sin crear Matcher ni subcadenas para las coordenadas.
+ */
+public final class QrPayloadParser {
+    private static final String TAG = "QrPayloadParser";
+    private static final String KEY_ETIQUETA = "etiqueta1d:";
+    private static final String KEY_LATITUD = "latitud:";
+    private static final String KEY_LONGITUD = "longitud:";
+    private static final String KEY_OBSERVACION = "observacion:";
+
+    private static final int MAX_FAST_DIGITS = 15;
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10,
+            1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20,
+            1e21, 1e22
+    };
+
+    private QrPayloadParser() {
+    }
+
+    public static BackupItem parse(String data) {
+        BackupItem item = new BackupItem();
+        if (data == null) {
+            return item;
+        }
+
+        boolean etiquetaDone = false;
+        boolean latitudDone = false;
+        boolean longitudDone = false;
+        boolean observacionDone = false;
+        int length = data.length();
+
+        for (int i = 0; i < length; i++) {
+            char c = data.charAt(i);
+            if (c == 'e' && !etiquetaDone && data.startsWith(KEY_ETIQUETA, i)) {
+                int start = i + KEY_ETIQUETA.length();
+                int end = data.indexOf('-', start);
+                if (end > start) {
+                    item.setEtiqueta1d(data.substring(start, end));
+                    etiquetaDone = true;
+                }
+            } else if (c == 'l') {
+                if (!latitudDone && data.startsWith(KEY_LATITUD, i)) {
+                    latitudDone = matchCoordinate(data, i + KEY_LATITUD.length(), item, true);
+                } else if (!longitudDone && data.startsWith(KEY_LONGITUD, i)) {
+                    longitudDone = matchCoordinate(data, i + KEY_LONGITUD.length(), item, false);
+                }
+            } else if (c == 'o' && !observacionDone && data.startsWith(KEY_OBSERVACION, i)) {
+                int start = i + KEY_OBSERVACION.length();
+                int end = endOfObservation(data, start);
+                if (end > start) {
+                    item.setObservacion(data.substring(start, end));
+                    observacionDone = true;
+                }
+            }
+
+            if (etiquetaDone && latitudDone && longitudDone && observacionDone) {
+                break;
+            }
+        }
+
+        return item;
+    }
+
+    // Equivalente a "([-0-9.]+)-": el grupo llega hasta el último guion de la racha.
+    // Devuelve true si hubo coincidencia aunque el número no sea válido.
+    private static boolean matchCoordinate(String data, int start, BackupItem item, boolean latitud) {
+        int length = data.length();
+        int run = start;
+        int lastDash = -1;
+        while (run < length) {
+            char c = data.charAt(run);
+            if (c == '-') {
+                if (run > start) {
+                    lastDash = run;
+                }
+            } else if ((c < '0' || c > '9') && c != '.') {
+                break;
+            }
+            run++;
+        }
+
+        if (lastDash == -1) {
+            return false;
+        }
+
+        double value;
+        try {
+            value = parseDouble(data, start, lastDash);
+        } catch (NumberFormatException e) {
+            Logs.e(TAG, "Error al parsear " + (latitud ? "latitud" : "longitud")
+                    + ": " + e.getMessage(), e);
+            return true;
+        }
+
+        if (latitud) {
+            item.setLatitud(value);
+        } else {
+            item.setLongitud(value);
+        }
+        return true;
+    }
+
+    // Equivalente a "(.+)$": termina en el primer salto de línea, que debe ser el final de la entrada.
+    private static int endOfObservation(String data, int start) {
+        int length = data.length();
+        int end = start;
+        while (end < length && !isLineTerminator(data.charAt(end))) {
+            end++;
+        }
+
+        if (end == length) {
+            return end;
+        }
+        if (end == length - 1) {
+            return end;
+        }
+        if (end == length - 2 && data.charAt(end) == '\r' && data.charAt(end + 1) == '\n') {
+            return end;
+        }
+        return -1;
+    }
+
+    private static boolean isLineTerminator(char c) {
+        return c == '\n' || c == '\r' || c == '\u0085' || (c | 1) == '\u2029';
+    }
+
+    // Mismo resultado que Double.parseDouble: conversión exacta cuando la mantisa cabe
+    // en 15 dígitos y el exponente en 10^22; en otro caso se delega en Double.parseDouble.
+    static double parseDouble(String data, int start, int end) {
+        int i = start;
+        boolean negative = false;
+        if (i < end && data.charAt(i) == '-') {
+            negative = true;
+            i++;
+        }
+
+        long mantissa = 0;
+        int significantDigits = 0;
+        int digits = 0;
+        int fractionDigits = 0;
+        boolean seenDot = false;
+
+        for (; i < end; i++) {
+            char c = data.charAt(i);
+            if (c == '.') {
+                if (seenDot) {
+                    throw new NumberFormatException("multiple points");
+                }
+                seenDot = true;
+                continue;
+            }
+            if (c < '0' || c > '9') {
+                throw new NumberFormatException("For input string: \"" + data.substring(start, end) + "\"");
+            }
+
+            digits++;
+            if (seenDot) {
+                fractionDigits++;
+            }
+            if (mantissa != 0 || c != '0') {
+                significantDigits++;
+            }
+            if (significantDigits > MAX_FAST_DIGITS) {
+                return Double.parseDouble(data.substring(start, end));
+            }
+            mantissa = mantissa * 10 + (c - '0');
+        }
+
+        if (digits == 0) {
+            throw new NumberFormatException("For input string: \"" + data.substring(start, end) + "\"");
+        }
+        if (fractionDigits >= POWERS_OF_TEN.length) {
+            return Double.parseDouble(data.substring(start, end));
+        }
+
+        double value = fractionDigits == 0 ? (double) mantissa : mantissa / POWERS_OF_TEN[fractionDigits];
+        return negative ? -value : value;
+    }
+}
@@ -0,0 +1,155 @@
+package com.svape.qr.coorapp.util;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.ByteBuffer;
+
+/**
+ * Validación local del payload de un QR: Base64 válido, estructura
+ * {@code etiqueta1d:...-latitud:...-longitud:...-observacion:...} y coordenadas en rango, con las
+ * mismas reglas que {@link DataParser#formatInput(String)}. El dato validado sale normalizado,
+ * listo para {@link DataParser#parseData(String)}.
+ */
+public final class QrValidator {
+    private static final String TAG = "QrValidator";
+    private static final String KEY_ETIQUETA = "etiqueta1d:";
+    private static final String SEPARATOR_LATITUD = "-latitud:";
+    private static final String SEPARATOR_LONGITUD = "-longitud:";
+    private static final String SEPARATOR_OBSERVACION = "-observacion:";
+
+    // Dónde se valida cada escaneo antes de guardarlo.
+    public enum Mode {
+        // Solo en el dispositivo; el servicio remoto no se consulta.
+        LOCAL_ONLY,
+        // Se guarda al validar en el dispositivo y el servicio lo confirma después, con red.
+        LOCAL_THEN_REMOTE_ASYNC,
+        // Solo el servicio remoto decide; el escaneo espera en la bandeja hasta tener red.
+        REMOTE_REQUIRED
+    }
+
+    public static final class Result {
+        private final String data;
+        private final String error;
+
+        private Result(String data, String error) {
+            this.data = data;
+            this.error = error;
+        }
+
+        public boolean isValid() {
+            return error == null;
+        }
+
+        // Dato normalizado; null si no es válido.
+        public String getData() {
+            return data;
+        }
+
+        public String getError() {
+            return error;
+        }
+    }
+
+    private QrValidator() {
+    }
+
+    public static Result validate(String base64Payload) {
+        String decoded = decodeBase64(base64Payload);
+        if (decoded == null) {
+            return new Result(null, "El contenido no es Base64 válido");
+        }
+        return validateDecoded(decoded.trim());
+    }
+
+    static Result validateDecoded(String data) {
+        int latitud = data.indexOf(SEPARATOR_LATITUD);
+        int longitud = latitud < 0 ? -1 : data.indexOf(SEPARATOR_LONGITUD, latitud + SEPARATOR_LATITUD.length());
+        int observacion = longitud < 0 ? -1 : data.indexOf(SEPARATOR_OBSERVACION, longitud + SEPARATOR_LONGITUD.length());
+        if (!data.startsWith(KEY_ETIQUETA) || observacion < 0) {
+            return new Result(null, "Estructura QR incorrecta");
+        }
+
+        String[] parts = {
+                data.substring(KEY_ETIQUETA.length(), latitud).trim(),
+                data.substring(latitud + SEPARATOR_LATITUD.length(), longitud).trim(),
+                data.substring(longitud + SEPARATOR_LONGITUD.length(), observacion).trim(),
+                data.substring(observacion + SEPARATOR_OBSERVACION.length()).trim()
+        };
+        // La etiqueta llega hasta el primer guion, igual que al escribirla a mano.
+        if (parts[0].indexOf('-') >= 0) {
+            return new Result(null, "Estructura QR incorrecta");
+        }
+
+        try {
+            DataParser.validateAndTransformParts(parts);
+        } catch (IllegalArgumentException e) {
+            Logs.d(TAG, "Payload rechazado localmente: " + e.getMessage());
+            return new Result(null, e.getMessage());
+        }
+
+        return new Result("etiqueta1d:" + parts[0] +
+                "-latitud:" + parts[1] +
+                "-longitud:" + parts[2] +
+                "-observacion:" + parts[3], null);
+    }
+
+    // Decodificador propio: java.util.Base64 no existe antes de Android 8 (minSdk 25). Acepta
+    // saltos de línea y relleno opcional, como android.util.Base64.DEFAULT.
+    static String decodeBase64(String input) {
+        if (input == null) {
+            return null;
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream(input.length() * 3 / 4);
+        int buffer = 0;
+        int bits = 0;
+        int padding = 0;
+        int symbols = 0;
+        for (int i = 0; i < input.length(); i++) {
+            char c = input.charAt(i);
+            if (c == '\n' || c == '\r' || c == ' ' || c == '\t') {
+                continue;
+            }
+            if (c == '=') {
+                padding++;
+                continue;
+            }
+
+            int value = valueOf(c);
+            if (value < 0 || padding > 0) {
+                return null;
+            }
+            buffer = (buffer << 6) | value;
+            bits += 6;
+            symbols++;
+            if (bits >= 8) {
+                bits -= 8;
+                out.write((buffer >> bits) & 0xFF);
+            }
+        }
+        if (symbols == 0 || symbols % 4 == 1 || padding > 2) {
+            return null;
+        }
+
+        try {
+            return StandardCharsets.UTF_8.newDecoder()
+                    .onMalformedInput(CodingErrorAction.REPORT)
+                    .onUnmappableCharacter(CodingErrorAction.REPORT)
+                    .decode(ByteBuffer.wrap(out.toByteArray()))
+                    .toString();
+        } catch (CharacterCodingException e) {
+            return null;
+        }
+    }
+
+    private static int valueOf(char c) {
+        if (c >= 'A' && c <= 'Z') return c - 'A';
+        if (c >= 'a' && c <= 'z') return c - 'a' + 26;
+        if (c >= '0' && c <= '9') return c - '0' + 52;
+        if (c == '+') return 62;
+        if (c == '/') return 63;
+        return -1;
+    }
+}
@@ -0,0 +1,105 @@
+package com.svape.qr.coorapp.util;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Caché en memoria acotada a maxEntries (expulsa la menos usada) cuyas entradas vencen
+ * ttlMillis después de guardarse. Cuenta aciertos, fallos, expulsiones y vencimientos.
+ */
+public final class TtlLruCache<K, V> {
+    private final int maxEntries;
+    private final long ttlMillis;
+    private final LongSupplier clock;
+    private final LinkedHashMap<K, Entry<V>> entries;
+
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long expirations;
+
+    public TtlLruCache(int maxEntries, long ttlMillis, LongSupplier clock) {
+        if (maxEntries < 1 || ttlMillis < 1) {
+            throw new IllegalArgumentException("Tamaño y vigencia deben ser positivos");
+        }
+        this.maxEntries = maxEntries;
+        this.ttlMillis = ttlMillis;
+        this.clock = clock;
+        // accessOrder = true: cada get mueve la entrada al final, la primera es la menos usada.
+        this.entries = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    public synchronized V get(K key) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null) {
+            misses++;
+            return null;
+        }
+        if (isExpired(entry.storedAt)) {
+            entries.remove(key);
+            expirations++;
+            misses++;
+            return null;
+        }
+        hits++;
+        return entry.value;
+    }
+
+    public void put(K key, V value) {
+        put(key, value, clock.getAsLong());
+    }
+
+    // storedAt permite promover entradas de otro nivel sin extender su vigencia.
+    public synchronized void put(K key, V value, long storedAt) {
+        if (isExpired(storedAt)) {
+            return;
+        }
+        entries.put(key, new Entry<>(value, storedAt));
+        if (entries.size() > maxEntries) {
+            evictOne();
+        }
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    public synchronized long getExpirations() {
+        return expirations;
+    }
+
+    private boolean isExpired(long storedAt) {
+        return clock.getAsLong() - storedAt >= ttlMillis;
+    }
+
+    // Las vencidas se retiran al consultarlas; aquí solo sale la menos usada.
+    private void evictOne() {
+        Iterator<K> eldest = entries.keySet().iterator();
+        eldest.next();
+        eldest.remove();
+        evictions++;
+    }
+
+    private static final class Entry<V> {
+        final V value;
+        final long storedAt;
+
+        Entry(V value, long storedAt) {
+            this.value = value;
+            this.storedAt = storedAt;
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.svape.qr.coorapp.sync;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import com.svape.qr.coorapp.model.BackupItem;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.BlockJUnit4ClassRunner;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@RunWith(BlockJUnit4ClassRunner.class)
+public class BackupItemCodecTest {
+
+    @Test
+    public void fromMap_acceptsLongAndDoubleCoordinates() {
+        Map<String, Object> map = new HashMap<>();
+        map.put("etiqueta1d", "ABC");
+        map.put("latitud", 4L);
+        map.put("longitud", -74.5);
+        map.put("observacion", "ok");
+
+        BackupItem item = BackupItemCodec.fromMap(map);
+
+        assertEquals("ABC", item.getEtiqueta1d());
+        assertEquals(4.0, item.getLatitud(), 0.0);
+        assertEquals(-74.5, item.getLongitud(), 0.0);
+        assertEquals("ok", item.getObservacion());
+    }
+
+    @Test
+    public void fromMaps_skipsEntriesWithoutTag() {
+        Map<String, Object> valid = BackupItemCodec.toMap(new BackupItem("A", 1, 2, "x"));
+        Map<String, Object> invalid = new HashMap<>();
+        invalid.put("latitud", 1.0);
+
+        List<BackupItem> items = BackupItemCodec.fromMaps(Arrays.asList(valid, invalid, null));
+
+        assertEquals(1, items.size());
+        assertEquals("A", items.get(0).getEtiqueta1d());
+    }
+
+    @Test
+    public void fromMap_withMissingCoordinates_defaultsToZero() {
+        Map<String, Object> map = new HashMap<>();
+        map.put("etiqueta1d", "A");
+
+        BackupItem item = BackupItemCodec.fromMap(map);
+
+        assertEquals(0.0, item.getLatitud(), 0.0);
+        assertNull(item.getObservacion());
+    }
+
+    @Test
+    public void documentIdFor_escapesCharactersFirestoreRejects() {
+        assertEquals("ABC123", BackupItemCodec.documentIdFor("ABC123"));
+        assertEquals("A%2FB", BackupItemCodec.documentIdFor("A/B"));
+        assertEquals("100%25", BackupItemCodec.documentIdFor("100%"));
+        assertEquals("%.", BackupItemCodec.documentIdFor("."));
+        assertEquals("%..", BackupItemCodec.documentIdFor(".."));
+        assertEquals("%__name__", BackupItemCodec.documentIdFor("__name__"));
+        assertEquals("%", BackupItemCodec.documentIdFor(""));
+    }
+
+    @Test
+    public void documentIdFor_keepsDistinctTagsDistinct() {
+        assertNotEquals(BackupItemCodec.documentIdFor("A/B"), BackupItemCodec.documentIdFor("A%2FB"));
+        assertNotEquals(BackupItemCodec.documentIdFor("."), BackupItemCodec.documentIdFor("%."));
+    }
+
+    @Test
+    public void toMap_roundTripsVersionAndTombstone() {
+        BackupItem item = new BackupItem("A", 1, 2, "x");
+        item.setUpdatedAt(1234L);
+        item.setDeviceId("device-1");
+        item.setDeleted(true);
+
+        Map<String, Object> map = BackupItemCodec.toMap(item);
+        BackupItem decoded = BackupItemCodec.fromMap(map);
+
+        assertEquals(1234L, map.get("deletedAt"));
+        assertEquals(1234L, decoded.getUpdatedAt());
+        assertEquals("device-1", decoded.getDeviceId());
+        assertTrue(decoded.isDeleted());
+    }
+
+    @Test
+    public void toMap_omitsDeletedAtForLiveItems() {
+        Map<String, Object> map = BackupItemCodec.toMap(new BackupItem("A", 1, 2, "x"));
+
+        assertFalse(map.containsKey("deletedAt"));
+        assertFalse(BackupItemCodec.fromMap(map).isDeleted());
+    }
+}
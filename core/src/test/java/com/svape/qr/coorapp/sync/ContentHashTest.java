@@ -0,0 +1,61 @@
+package com.svape.qr.coorapp.sync;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+import com.svape.qr.coorapp.model.BackupItem;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.BlockJUnit4ClassRunner;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+@RunWith(BlockJUnit4ClassRunner.class)
+public class ContentHashTest {
+
+    @Test
+    public void value_doesNotDependOnOrder() {
+        List<BackupItem> items = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            items.add(new BackupItem("TAG" + i, i * 0.5, -i * 0.25, "obs " + i));
+        }
+        String expected = ContentHash.of(items);
+
+        Collections.shuffle(items, new Random(7));
+
+        assertEquals(expected, ContentHash.of(items));
+    }
+
+    @Test
+    public void value_changesWhenAnyFieldChanges() {
+        String base = ContentHash.of(Arrays.asList(new BackupItem("A", 1.0, 2.0, "x")));
+
+        assertNotEquals(base, ContentHash.of(Arrays.asList(new BackupItem("B", 1.0, 2.0, "x"))));
+        assertNotEquals(base, ContentHash.of(Arrays.asList(new BackupItem("A", 1.5, 2.0, "x"))));
+        assertNotEquals(base, ContentHash.of(Arrays.asList(new BackupItem("A", 1.0, 2.5, "x"))));
+        assertNotEquals(base, ContentHash.of(Arrays.asList(new BackupItem("A", 1.0, 2.0, null))));
+        assertNotEquals(base, ContentHash.of(Arrays.asList(new BackupItem("A", 1.0, 2.0, "y"))));
+    }
+
+    @Test
+    public void value_doesNotConfuseFieldBoundaries() {
+        assertNotEquals(
+                ContentHash.of(Arrays.asList(new BackupItem("AB", 0, 0, "C"))),
+                ContentHash.of(Arrays.asList(new BackupItem("A", 0, 0, "BC"))));
+    }
+
+    @Test
+    public void add_countsItems() {
+        ContentHash hash = new ContentHash()
+                .add(new BackupItem("A", 0, 0, null))
+                .add(new BackupItem("B", 0, 0, null));
+
+        assertEquals(2, hash.getCount());
+        assertEquals(16, hash.value().length());
+    }
+}
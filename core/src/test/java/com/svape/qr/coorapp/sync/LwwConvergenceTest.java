@@ -0,0 +1,212 @@
+package com.svape.qr.coorapp.sync;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.svape.qr.coorapp.backend.BackendException;
+import com.svape.qr.coorapp.backend.FaultInjector;
+import com.svape.qr.coorapp.backend.InMemorySyncBackend;
+import com.svape.qr.coorapp.model.BackupItem;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.BlockJUnit4ClassRunner;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Simula N dispositivos que escanean, editan y borran etiquetas compartidas y sincronizan en
+ * orden aleatorio, cada uno con su {@link SyncEngine} y su almacén local, contra un mismo
+ * backend que, como Firestore con {@code set}, sobrescribe a ciegas y puede fallar en
+ * cualquier viaje.
+ */
+@RunWith(BlockJUnit4ClassRunner.class)
+public class LwwConvergenceTest {
+
+    private static final String USER = "ana";
+    private static final int TAGS = 40;
+    // Menor que TAGS para que las descargas se partan en páginas y usen el cursor.
+    private static final int PAGE_SIZE = 7;
+
+    @Test
+    public void devicesConvergeForManySeeds() {
+        for (long seed = 1; seed <= 50; seed++) {
+            simulate(seed, 2 + (int) (seed % 5), 1_500, 0);
+        }
+    }
+
+    @Test
+    public void devicesConvergeDespiteFailedRoundTrips() {
+        for (long seed = 1; seed <= 50; seed++) {
+            simulate(seed, 2 + (int) (seed % 5), 1_500, 0.15);
+        }
+    }
+
+    @Test
+    public void localEditAfterSeeingRemoteWinsDespiteClockSkew() {
+        InMemorySyncBackend backend = new InMemorySyncBackend();
+        Device ahead = new Device("A", backend, 1_000_000);
+        Device behind = new Device("B", backend, 0);
+
+        ahead.scan("X", 1.0);
+        ahead.sync();
+        behind.sync();
+        behind.scan("X", 2.0);
+        behind.sync();
+        ahead.sync();
+
+        assertEquals(2.0, ahead.get("X").getLatitud(), 0.0);
+        assertEquals(2.0, backend.items(USER).get(0).getLatitud(), 0.0);
+    }
+
+    @Test
+    public void deletionPropagatesAndDoesNotResurrect() {
+        InMemorySyncBackend backend = new InMemorySyncBackend();
+        Device a = new Device("A", backend, 0);
+        Device b = new Device("B", backend, 0);
+
+        a.scan("X", 1.0);
+        a.sync();
+        b.sync();
+        b.delete("X");
+        b.sync();
+        a.sync();
+        a.sync();
+
+        assertTrue(a.get("X").isDeleted());
+        assertTrue(backend.items(USER).get(0).isDeleted());
+    }
+
+    private static void simulate(long seed, int deviceCount, int operations, double failureRate) {
+        Random random = new Random(seed);
+        FaultInjector faults = new FaultInjector(seed).setFailureRate(failureRate);
+        InMemorySyncBackend backend = new InMemorySyncBackend(faults);
+        List<Device> devices = new ArrayList<>();
+        for (int i = 0; i < deviceCount; i++) {
+            // Relojes desfasados hasta ±5 s entre dispositivos.
+            devices.add(new Device("device-" + i, backend, random.nextInt(10_000) - 5_000));
+        }
+
+        for (int op = 0; op < operations; op++) {
+            Device device = devices.get(random.nextInt(deviceCount));
+            device.advance(random.nextInt(50));
+            int action = random.nextInt(10);
+            String tag = "TAG" + random.nextInt(TAGS);
+            if (action < 5) {
+                device.scan(tag, random.nextInt(1000) / 10.0);
+            } else if (action < 7) {
+                device.delete(tag);
+            } else {
+                device.sync();
+            }
+        }
+
+        // Sin fallas, dos rondas completas bastan: la primera deja en el servidor el máximo
+        // global y la segunda lo reparte a todos.
+        faults.setFailureRate(0);
+        syncAll(devices, 2);
+        String message = "seed " + seed + ", fallas " + failureRate;
+        assertConverged(message, backend, devices);
+
+        // Vencido el plazo de las lápidas, la siguiente subida de cada uno las purga.
+        for (Device device : devices) {
+            device.advance(LwwMerger.TOMBSTONE_TTL_MILLIS + 60_000);
+        }
+        syncAll(devices, 1);
+        for (BackupItem item : backend.items(USER)) {
+            assertFalse(message + " " + item.getEtiqueta1d() + " sin purgar", item.isDeleted());
+        }
+        assertConverged(message + " tras purgar", backend, devices);
+    }
+
+    private static void syncAll(List<Device> devices, int rounds) {
+        for (int round = 0; round < rounds; round++) {
+            for (Device device : devices) {
+                device.sync();
+            }
+        }
+    }
+
+    private static void assertConverged(String message, InMemorySyncBackend backend, List<Device> devices) {
+        List<BackupItem> remote = backend.items(USER);
+        List<String> etiquetas = new ArrayList<>();
+        List<BackupItem> live = new ArrayList<>();
+        for (BackupItem item : remote) {
+            etiquetas.add(item.getEtiqueta1d());
+            if (!item.isDeleted()) {
+                live.add(item);
+            }
+        }
+        String remoteHash = ContentHash.of(live);
+
+        for (Device device : devices) {
+            String where = message + ", " + device.id;
+            assertEquals(where, remote.size(), device.store.size());
+            assertEquals(where + " pendientes", Collections.emptyList(), device.store.getDirty(USER));
+            assertEquals(where, remoteHash, device.store.contentHash(USER).value());
+
+            List<BackupItem> local = device.store.findByEtiquetas(USER, etiquetas);
+            assertEquals(where, remote.size(), local.size());
+            for (int i = 0; i < remote.size(); i++) {
+                assertEquals(where + " " + etiquetas.get(i), 0, LwwMerger.compare(remote.get(i), local.get(i)));
+            }
+        }
+    }
+
+    private static class Device {
+        final String id;
+        final InMemoryLocalStore store = new InMemoryLocalStore();
+        final MonotonicClock clock;
+        final SyncEngine engine;
+        long wall;
+
+        Device(String id, InMemorySyncBackend backend, long skew) {
+            this.id = id;
+            this.wall = 1_000_000 + skew;
+            this.clock = new MonotonicClock(() -> wall);
+            this.engine = new SyncEngine(backend, store, clock, () -> wall);
+        }
+
+        void advance(long millis) {
+            wall += millis;
+        }
+
+        BackupItem get(String tag) {
+            List<BackupItem> found = store.findByEtiquetas(USER, Collections.singletonList(tag));
+            return found.isEmpty() ? null : found.get(0);
+        }
+
+        void scan(String tag, double latitud) {
+            BackupItem item = new BackupItem(tag, latitud, -latitud, "obs " + latitud);
+            item.setUpdatedAt(clock.now());
+            item.setDeviceId(id);
+            store.save(USER, item, true);
+        }
+
+        void delete(String tag) {
+            BackupItem current = get(tag);
+            if (current == null || current.isDeleted()) {
+                return;
+            }
+            current.setUpdatedAt(clock.now());
+            current.setDeviceId(id);
+            current.setDeleted(true);
+            store.save(USER, current, true);
+        }
+
+        // Igual que SyncCoordinator: descarga y resuelve, luego sube lo pendiente. Una falla deja la
+        // sincronización a medias y la siguiente la retoma.
+        void sync() {
+            try {
+                engine.download(USER, PAGE_SIZE, saved -> { });
+                engine.uploadPending(USER, "hoy", id);
+            } catch (BackendException e) {
+                // Se reintenta en la próxima sincronización.
+            }
+        }
+    }
+}
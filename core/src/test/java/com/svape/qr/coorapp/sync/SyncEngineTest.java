@@ -0,0 +1,252 @@
+package com.svape.qr.coorapp.sync;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import com.svape.qr.coorapp.backend.BackendException;
+import com.svape.qr.coorapp.backend.InMemorySyncBackend;
+import com.svape.qr.coorapp.model.BackupItem;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.BlockJUnit4ClassRunner;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+@RunWith(BlockJUnit4ClassRunner.class)
+public class SyncEngineTest {
+
+    private static final String USER = "ana";
+
+    private final AtomicLong time = new AtomicLong(1_000);
+    private final InMemorySyncBackend backend = new InMemorySyncBackend();
+
+    @Test
+    public void download_pullsEveryPageThenSkipsWhileUnchanged() throws BackendException {
+        List<BackupItem> remote = items(1_234, 10);
+        backend.seed(USER, remote, 3, ContentHash.of(remote));
+        InMemoryLocalStore local = new InMemoryLocalStore();
+        SyncEngine engine = engine(local);
+
+        AtomicInteger progress = new AtomicInteger();
+        assertEquals(1_234, engine.download(USER, 500, progress::set));
+        assertEquals(1_234, progress.get());
+        assertEquals(1_234, local.liveItems(USER).size());
+        assertEquals(ContentHash.of(remote), local.contentHash(USER).value());
+
+        backend.resetCounters();
+        assertEquals(0, engine.download(USER, 500, saved -> { }));
+        assertEquals(1, backend.faults().getRoundTrips());
+        assertEquals(1, backend.getDocumentReads());
+    }
+
+    @Test
+    public void uploadPending_reachesSecondDevice() throws BackendException {
+        InMemoryLocalStore first = new InMemoryLocalStore();
+        InMemoryLocalStore second = new InMemoryLocalStore();
+        for (BackupItem item : items(3, 50)) {
+            first.save(USER, item, true);
+        }
+        SyncEngine firstEngine = engine(first);
+
+        // Como la app: se reconcilia con el servidor (vacío) antes de la primera subida.
+        assertEquals(0, firstEngine.download(USER, 500, saved -> { }));
+        assertEquals(3, firstEngine.uploadPending(USER, "hoy", "A"));
+        assertTrue(first.getDirty(USER).isEmpty());
+        assertEquals(3, engine(second).download(USER, 500, saved -> { }));
+        assertEquals(first.contentHash(USER).value(), second.contentHash(USER).value());
+
+        backend.resetCounters();
+        assertEquals(0, firstEngine.uploadPending(USER, "hoy", "A"));
+        assertEquals(0, firstEngine.download(USER, 500, saved -> { }));
+        assertEquals(1, backend.faults().getRoundTrips());
+    }
+
+    @Test
+    public void uploadPending_keepsRowsDirtyWhenBackendFails() throws BackendException {
+        InMemoryLocalStore local = new InMemoryLocalStore();
+        for (BackupItem item : items(1_200, 50)) {
+            local.save(USER, item, true);
+        }
+        SyncEngine engine = engine(local);
+
+        backend.faults().failNext(1);
+        try {
+            engine.uploadPending(USER, "hoy", "A");
+            fail("Se esperaba la falla inyectada");
+        } catch (BackendException expected) {
+            assertEquals(1_200, local.getDirty(USER).size());
+        }
+
+        assertEquals(1_200, engine.uploadPending(USER, "hoy", "A"));
+        assertTrue(local.getDirty(USER).isEmpty());
+        assertEquals(1_200, backend.items(USER).size());
+    }
+
+    @Test
+    public void download_marksLocalWinnerDirtyAgain() throws BackendException {
+        BackupItem older = item("A", 100);
+        backend.seed(USER, Collections.singletonList(older), 1, null);
+
+        InMemoryLocalStore local = new InMemoryLocalStore();
+        BackupItem newer = item("A", 200);
+        newer.setObservacion("editado");
+        local.save(USER, newer, false);
+
+        engine(local).download(USER, 500, saved -> { });
+
+        List<BackupItem> dirty = local.getDirty(USER);
+        assertEquals(1, dirty.size());
+        assertEquals("editado", dirty.get(0).getObservacion());
+    }
+
+    @Test
+    public void download_resumesFromCheckpointAfterInterruption() throws BackendException {
+        List<BackupItem> remote = items(1_234, 10);
+        backend.seed(USER, remote, 3, ContentHash.of(remote));
+        InMemoryLocalStore local = new InMemoryLocalStore();
+        SyncEngine engine = engine(local);
+
+        // Metadatos y dos páginas; la tercera se corta.
+        backend.faults().failAfter(3);
+        try {
+            engine.download(USER, 500, saved -> { });
+            fail("Se esperaba la falla inyectada");
+        } catch (BackendException expected) {
+            assertEquals(1_000, local.liveItems(USER).size());
+        }
+
+        backend.resetCounters();
+        assertEquals(234, engine.download(USER, 500, saved -> { }));
+        assertEquals(235, backend.getDocumentReads());
+        assertEquals(ContentHash.of(remote), local.contentHash(USER).value());
+        assertNull(local.getSyncState(USER).getDownloadCursor());
+    }
+
+    @Test
+    public void download_restartsWhenVersionChangedSinceCheckpoint() throws BackendException {
+        List<BackupItem> remote = items(1_234, 10);
+        backend.seed(USER, remote, 3, ContentHash.of(remote));
+        InMemoryLocalStore local = new InMemoryLocalStore();
+        SyncEngine engine = engine(local);
+
+        backend.faults().failAfter(2);
+        try {
+            engine.download(USER, 500, saved -> { });
+            fail("Se esperaba la falla inyectada");
+        } catch (BackendException expected) {
+            assertEquals(500, local.liveItems(USER).size());
+        }
+
+        backend.seed(USER, remote, 4, ContentHash.of(remote));
+        assertEquals(1_234, engine.download(USER, 500, saved -> { }));
+    }
+
+    @Test
+    public void uploadPending_resumesAfterCommittedBatchesAndPublishes() throws BackendException {
+        InMemoryLocalStore local = new InMemoryLocalStore();
+        for (BackupItem item : items(1_200, 50)) {
+            local.save(USER, item, true);
+        }
+        SyncEngine engine = engine(local);
+        assertEquals(0, engine.download(USER, 500, saved -> { }));
+
+        // Dos lotes confirmados; el tercero se corta.
+        backend.faults().failAfter(2);
+        try {
+            engine.uploadPending(USER, "hoy", "A");
+            fail("Se esperaba la falla inyectada");
+        } catch (BackendException expected) {
+            assertEquals(1_200 - 2 * SyncEngine.UPLOAD_BATCH_SIZE, local.getDirty(USER).size());
+            assertTrue(local.getSyncState(USER).isUploadUnpublished());
+            assertNull(backend.fetchMetadata(USER).getContentHash());
+        }
+
+        backend.resetCounters();
+        assertEquals(1_200 - 2 * SyncEngine.UPLOAD_BATCH_SIZE, engine.uploadPending(USER, "hoy", "A"));
+        // Solo lo pendiente, más el documento padre del lote y la publicación.
+        assertEquals(1_200 - 2 * SyncEngine.UPLOAD_BATCH_SIZE + 2, backend.getDocumentWrites());
+        assertEquals(1_200, backend.items(USER).size());
+        assertEquals(local.contentHash(USER).value(), backend.fetchMetadata(USER).getContentHash());
+        assertFalse(local.getSyncState(USER).isUploadUnpublished());
+    }
+
+    @Test
+    public void uploadPending_publishesInterruptedUploadWithoutNewRows() throws BackendException {
+        InMemoryLocalStore local = new InMemoryLocalStore();
+        for (BackupItem item : items(3, 50)) {
+            local.save(USER, item, true);
+        }
+        SyncEngine engine = engine(local);
+        assertEquals(0, engine.download(USER, 500, saved -> { }));
+
+        // La subida se confirma pero la publicación de metadatos se corta.
+        backend.faults().failAfter(1);
+        try {
+            engine.uploadPending(USER, "hoy", "A");
+            fail("Se esperaba la falla inyectada");
+        } catch (BackendException expected) {
+            assertTrue(local.getDirty(USER).isEmpty());
+        }
+
+        assertEquals(0, engine.uploadPending(USER, "hoy", "A"));
+        assertEquals(local.contentHash(USER).value(), backend.fetchMetadata(USER).getContentHash());
+    }
+
+    @Test
+    public void download_republishesHashClearedByConflict() throws BackendException {
+        List<BackupItem> remote = items(20, 10);
+        // Huella borrada: el último publicador no estaba reconciliado.
+        backend.seed(USER, remote, 7, null);
+        InMemoryLocalStore first = new InMemoryLocalStore();
+        SyncEngine firstEngine = engine(first);
+
+        assertEquals(20, firstEngine.download(USER, 500, saved -> { }));
+        assertEquals(8, backend.fetchMetadata(USER).getVersion());
+        assertEquals(ContentHash.of(remote), backend.fetchMetadata(USER).getContentHash());
+
+        // El mismo dispositivo y los demás, ya reconciliados, vuelven a omitir la descarga.
+        assertEquals(0, firstEngine.download(USER, 500, saved -> { }));
+        InMemoryLocalStore second = new InMemoryLocalStore();
+        assertEquals(20, engine(second).download(USER, 500, saved -> { }));
+        assertEquals(0, engine(second).download(USER, 500, saved -> { }));
+        assertEquals(8, backend.fetchMetadata(USER).getVersion());
+    }
+
+    @Test
+    public void download_leavesHashClearedWhileLocalChangesArePending() throws BackendException {
+        backend.seed(USER, items(5, 10), 7, null);
+        InMemoryLocalStore local = new InMemoryLocalStore();
+        local.save(USER, item("LOCAL", 20), true);
+
+        assertEquals(5, engine(local).download(USER, 500, saved -> { }));
+        assertNull(backend.fetchMetadata(USER).getContentHash());
+        assertEquals(7, backend.fetchMetadata(USER).getVersion());
+    }
+
+    private SyncEngine engine(InMemoryLocalStore local) {
+        return new SyncEngine(backend, local, new MonotonicClock(time::incrementAndGet), time::get);
+    }
+
+    private static List<BackupItem> items(int count, long updatedAt) {
+        List<BackupItem> items = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            items.add(item("TAG" + i, updatedAt));
+        }
+        return items;
+    }
+
+    private static BackupItem item(String etiqueta, long updatedAt) {
+        BackupItem item = new BackupItem(etiqueta, 4.6, -74.08, "obs " + etiqueta);
+        item.setUpdatedAt(updatedAt);
+        item.setDeviceId("seed");
+        return item;
+    }
+}
@@ -0,0 +1,76 @@
+package com.svape.qr.coorapp.sync;
+
+import static org.junit.Assert.assertEquals;
+
+import com.svape.qr.coorapp.model.BackupItem;
+import com.svape.qr.coorapp.sync.SyncPolicy.Connectivity;
+import com.svape.qr.coorapp.sync.SyncPolicy.Decision;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.BlockJUnit4ClassRunner;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+@RunWith(BlockJUnit4ClassRunner.class)
+public class SyncPolicyTest {
+
+    private static final long MINUTE = 60_000;
+
+    private final SyncPolicy policy = new SyncPolicy(5, 20, 4_096, 15 * MINUTE);
+
+    @Test
+    public void evaluate_waitsWithoutPendingChangesOrNetwork() {
+        assertEquals(Decision.WAIT, policy.evaluate(0, 0, 60 * MINUTE, Connectivity.UNMETERED));
+        assertEquals(Decision.WAIT, policy.evaluate(100, 100_000, 60 * MINUTE, Connectivity.NONE));
+    }
+
+    @Test
+    public void evaluate_syncsWhenAnyThresholdIsReached() {
+        assertEquals(Decision.WAIT, policy.evaluate(4, 100, MINUTE, Connectivity.UNMETERED));
+        assertEquals(Decision.SYNC, policy.evaluate(5, 100, MINUTE, Connectivity.UNMETERED));
+        assertEquals(Decision.SYNC, policy.evaluate(1, 4_096, MINUTE, Connectivity.UNMETERED));
+        assertEquals(Decision.SYNC, policy.evaluate(1, 100, 15 * MINUTE, Connectivity.UNMETERED));
+    }
+
+    @Test
+    public void evaluate_usesMeteredItemThreshold() {
+        assertEquals(Decision.WAIT, policy.evaluate(5, 100, MINUTE, Connectivity.METERED));
+        assertEquals(Decision.SYNC, policy.evaluate(20, 100, MINUTE, Connectivity.METERED));
+    }
+
+    @Test
+    public void tracker_countsIncrementallyAndResetsOnSync() {
+        AtomicLong now = new AtomicLong(0);
+        PendingChangeTracker tracker = new PendingChangeTracker(policy, now::get);
+
+        for (int i = 0; i < 4; i++) {
+            assertEquals(Decision.WAIT, tracker.recordChange("ana", item("T" + i), Connectivity.UNMETERED));
+        }
+        assertEquals(4, tracker.getPendingItems("ana"));
+        assertEquals(0, tracker.getPendingItems("luis"));
+
+        assertEquals(Decision.SYNC, tracker.recordChange("ana", item("T4"), Connectivity.UNMETERED));
+        assertEquals(0, tracker.getPendingItems("ana"));
+        assertEquals(0, tracker.getPendingBytes("ana"));
+
+        tracker.recordChange("ana", item("T5"), Connectivity.UNMETERED);
+        now.addAndGet(15 * MINUTE);
+        assertEquals(Decision.SYNC, tracker.recordChange("ana", item("T6"), Connectivity.UNMETERED));
+    }
+
+    @Test
+    public void tracker_markScheduledCoversPendingChanges() {
+        PendingChangeTracker tracker = new PendingChangeTracker(policy, () -> 0);
+        tracker.recordChange("ana", item("A"), Connectivity.NONE);
+        tracker.recordChange("ana", item("B"), Connectivity.NONE);
+
+        tracker.markScheduled("ana");
+
+        assertEquals(0, tracker.getPendingItems("ana"));
+    }
+
+    private static BackupItem item(String etiqueta) {
+        return new BackupItem(etiqueta, 4.6, -74.08, "obs");
+    }
+}
@@ -0,0 +1,43 @@
+package com.svape.qr.coorapp.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.BlockJUnit4ClassRunner;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+@RunWith(BlockJUnit4ClassRunner.class)
+public class BatchesTest {
+
+    @Test
+    public void partition_splitsIntoBoundedChunks() {
+        List<Integer> items = new ArrayList<>();
+        for (int i = 0; i < 1001; i++) {
+            items.add(i);
+        }
+
+        List<List<Integer>> batches = Batches.partition(items, 500);
+
+        assertEquals(3, batches.size());
+        assertEquals(500, batches.get(0).size());
+        assertEquals(500, batches.get(1).size());
+        assertEquals(1, batches.get(2).size());
+        assertEquals(Integer.valueOf(1000), batches.get(2).get(0));
+    }
+
+    @Test
+    public void partition_withEmptyList_returnsNoBatches() {
+        assertTrue(Batches.partition(Collections.emptyList(), 10).isEmpty());
+    }
+
+    @Test
+    public void partition_withInvalidSize_throwsException() {
+        assertThrows(IllegalArgumentException.class, () -> Batches.partition(Collections.singletonList(1), 0));
+    }
+}
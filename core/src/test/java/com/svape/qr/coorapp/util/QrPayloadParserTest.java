@@ -0,0 +1,185 @@
+package com.svape.qr.coorapp.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import com.svape.qr.coorapp.model.BackupItem;
+
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.BlockJUnit4ClassRunner;
+
+import java.util.Random;
+
+@RunWith(BlockJUnit4ClassRunner.class)
+public class QrPayloadParserTest {
+
+    private static final String[] TOKENS = {
+            "etiqueta1d:", "latitud:", "longitud:", "observacion:",
+            "-", "--", ".", "0", "1", "9", "12.5", "-80.6789", "4.60971", "0000",
+            "ABC", "x", " ", ":", "ñ", "ó", "日本", "📦",
+            "\n", "\r", "\r\n", "\u0085", "\u2028", "\u2029"
+    };
+
+    @After
+    public void restoreEngine() {
+        DataParser.setEngine(DataParser.Engine.SINGLE_PASS);
+    }
+
+    @Test
+    public void parse_withValidInput_matchesDataParserTestCase() {
+        String validInput = "etiqueta1d:ABC123-latitud:10.12345-longitud:-80.67890-observacion:Esta es una observación de prueba";
+
+        BackupItem result = QrPayloadParser.parse(validInput);
+
+        assertEquals("ABC123", result.getEtiqueta1d());
+        assertEquals(10.12345, result.getLatitud(), 0.0);
+        assertEquals(-80.67890, result.getLongitud(), 0.0);
+        assertEquals("Esta es una observación de prueba", result.getObservacion());
+    }
+
+    @Test
+    public void parse_withEmptyInput_returnsEmptyItem() {
+        BackupItem result = QrPayloadParser.parse("");
+
+        assertNull(result.getEtiqueta1d());
+        assertNull(result.getObservacion());
+        assertEquals(0.0, result.getLatitud(), 0.0);
+        assertEquals(0.0, result.getLongitud(), 0.0);
+    }
+
+    @Test
+    public void parse_withInvalidNumber_keepsDefaultLikeRegex() {
+        String input = "etiqueta1d:A-latitud:1-2-3-longitud:5.5-observacion:x";
+
+        assertSameResult(input);
+        assertEquals(0.0, QrPayloadParser.parse(input).getLatitud(), 0.0);
+    }
+
+    @Test
+    public void parse_withTrailingLineTerminator_matchesRegex() {
+        assertSameResult("etiqueta1d:A-latitud:1-longitud:2-observacion:hola\n");
+        assertSameResult("etiqueta1d:A-latitud:1-longitud:2-observacion:hola\r\n");
+        assertSameResult("etiqueta1d:A-latitud:1-longitud:2-observacion:hola\nmundo");
+        assertSameResult("etiqueta1d:A-latitud:1-longitud:2-observacion:\n-observacion:fin");
+    }
+
+    @Test
+    public void parse_withFormattedManualInput_matchesRegex() {
+        String[] inputs = {
+                "ABC123-10.12345--80.67890-Observación con guiones",
+                "ABC123-40.7128-74.006-Observación de prueba",
+                "DEF456--35.6895-120.4243-Santiago observación",
+                "GHI789-51.5074--0.1278-Londres observación",
+                "JKL012-37.7749--122.4194-"
+        };
+
+        for (String input : inputs) {
+            assertSameResult(DataParser.formatInput(input));
+        }
+    }
+
+    @Test
+    public void parseData_engineSwitch_selectsImplementation() {
+        String input = "etiqueta1d:ZZ9-latitud:-4.5-longitud:-74.25-observacion:ok";
+
+        DataParser.setEngine(DataParser.Engine.REGEX);
+        BackupItem legacy = DataParser.parseData(input);
+        DataParser.setEngine(DataParser.Engine.SINGLE_PASS);
+        BackupItem singlePass = DataParser.parseData(input);
+
+        assertItemEquals(input, legacy, singlePass);
+    }
+
+    @Test
+    public void parseDouble_matchesJdk() {
+        Random random = new Random(7L);
+        for (int i = 0; i < 20000; i++) {
+            StringBuilder sb = new StringBuilder();
+            if (random.nextBoolean()) {
+                sb.append('-');
+            }
+            int intDigits = random.nextInt(6);
+            for (int d = 0; d < intDigits; d++) {
+                sb.append((char) ('0' + random.nextInt(10)));
+            }
+            sb.append('.');
+            int fractionDigits = 1 + random.nextInt(20);
+            for (int d = 0; d < fractionDigits; d++) {
+                sb.append((char) ('0' + random.nextInt(10)));
+            }
+            String number = sb.toString();
+
+            assertEquals(number,
+                    Double.doubleToLongBits(Double.parseDouble(number)),
+                    Double.doubleToLongBits(QrPayloadParser.parseDouble(number, 0, number.length())));
+        }
+    }
+
+    @Test
+    public void parse_differentialFuzz_matchesRegex() {
+        Random random = new Random(20250515L);
+
+        for (int i = 0; i < 20000; i++) {
+            StringBuilder sb = new StringBuilder();
+            int tokens = random.nextInt(24);
+            for (int t = 0; t < tokens; t++) {
+                sb.append(TOKENS[random.nextInt(TOKENS.length)]);
+            }
+            assertSameResult(sb.toString());
+        }
+
+        for (int i = 0; i < 5000; i++) {
+            String payload = "etiqueta1d:" + randomTag(random)
+                    + "-latitud:" + randomCoordinate(random, 90)
+                    + "-longitud:" + randomCoordinate(random, 180)
+                    + "-observacion:" + randomObservation(random);
+            assertSameResult(payload);
+        }
+    }
+
+    private static String randomTag(Random random) {
+        StringBuilder sb = new StringBuilder();
+        int length = 1 + random.nextInt(12);
+        for (int i = 0; i < length; i++) {
+            sb.append((char) ('A' + random.nextInt(26)));
+        }
+        return sb.toString();
+    }
+
+    private static String randomCoordinate(Random random, int range) {
+        double value = (random.nextDouble() * 2 - 1) * range;
+        switch (random.nextInt(3)) {
+            case 0:
+                return String.valueOf(value);
+            case 1:
+                return String.format(java.util.Locale.US, "%.5f", value);
+            default:
+                return String.valueOf((int) value);
+        }
+    }
+
+    private static String randomObservation(Random random) {
+        StringBuilder sb = new StringBuilder();
+        int tokens = random.nextInt(6);
+        for (int i = 0; i < tokens; i++) {
+            sb.append(TOKENS[4 + random.nextInt(TOKENS.length - 4)]);
+        }
+        return sb.toString();
+    }
+
+    private static void assertSameResult(String input) {
+        assertItemEquals(input, DataParser.parseDataLegacy(input), QrPayloadParser.parse(input));
+    }
+
+    private static void assertItemEquals(String input, BackupItem expected, BackupItem actual) {
+        String message = "Entrada: " + input;
+        assertEquals(message, expected.getEtiqueta1d(), actual.getEtiqueta1d());
+        assertEquals(message, Double.doubleToLongBits(expected.getLatitud()),
+                Double.doubleToLongBits(actual.getLatitud()));
+        assertEquals(message, Double.doubleToLongBits(expected.getLongitud()),
+                Double.doubleToLongBits(actual.getLongitud()));
+        assertEquals(message, expected.getObservacion(), actual.getObservacion());
+    }
+}
@@ -0,0 +1,78 @@
+package com.svape.qr.coorapp.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import com.svape.qr.coorapp.model.BackupItem;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.BlockJUnit4ClassRunner;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Random;
+
+@RunWith(BlockJUnit4ClassRunner.class)
+public class QrValidatorTest {
+
+    @Test
+    public void validate_acceptsWellFormedPayloadAndNormalizes() {
+        QrValidator.Result result = QrValidator.validate(encode(
+                "etiqueta1d:ABC123-latitud:-4.60-longitud:-74.08-observacion:Entregar en portería"));
+
+        assertTrue(result.isValid());
+        assertEquals("etiqueta1d:ABC123-latitud:-4.6-longitud:-74.08-observacion:Entregar en portería",
+                result.getData());
+        BackupItem item = DataParser.parseData(result.getData());
+        assertEquals("ABC123", item.getEtiqueta1d());
+        assertEquals(-4.6, item.getLatitud(), 0);
+        assertEquals(-74.08, item.getLongitud(), 0);
+    }
+
+    @Test
+    public void validate_matchesManualInputFormatting() {
+        String formatted = DataParser.formatInput("DEF456--35.6895-120.4243-Santiago observación");
+
+        QrValidator.Result result = QrValidator.validate(encode(formatted));
+
+        assertEquals(formatted, result.getData());
+    }
+
+    @Test
+    public void validate_rejectsBadStructureAndRanges() {
+        assertFalse(QrValidator.validate("no es base64!").isValid());
+        assertFalse(QrValidator.validate("").isValid());
+        assertFalse(QrValidator.validate(encode("ABC123-4.6--74.08-obs")).isValid());
+        assertFalse(QrValidator.validate(encode("etiqueta1d:-latitud:4.6-longitud:-74.08-observacion:")).isValid());
+        assertEquals("Latitud fuera de rango (-90 a 90): 91.0",
+                QrValidator.validate(encode("etiqueta1d:A-latitud:91-longitud:0-observacion:")).getError());
+        assertFalse(QrValidator.validate(encode("etiqueta1d:A-latitud:1-longitud:x-observacion:")).isValid());
+    }
+
+    @Test
+    public void decodeBase64_matchesJdkDecoderWithLineBreaks() {
+        Random random = new Random(7);
+        for (int i = 0; i < 500; i++) {
+            StringBuilder text = new StringBuilder();
+            int length = random.nextInt(120);
+            for (int j = 0; j < length; j++) {
+                text.append((char) (' ' + random.nextInt(95)));
+            }
+            String encoded = Base64.getMimeEncoder(76, "\n".getBytes(StandardCharsets.US_ASCII))
+                    .encodeToString(text.toString().getBytes(StandardCharsets.UTF_8)) + "\n";
+            if (length == 0) {
+                assertNull(QrValidator.decodeBase64(encoded));
+            } else {
+                assertEquals(text.toString(), QrValidator.decodeBase64(encoded));
+            }
+        }
+        assertNull(QrValidator.decodeBase64("QUJD=RA=="));
+    }
+
+    private static String encode(String text) {
+        return Base64.getEncoder().encodeToString(text.getBytes(StandardCharsets.UTF_8));
+    }
+}
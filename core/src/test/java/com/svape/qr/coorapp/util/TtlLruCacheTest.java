@@ -0,0 +1,67 @@
+package com.svape.qr.coorapp.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.BlockJUnit4ClassRunner;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+@RunWith(BlockJUnit4ClassRunner.class)
+public class TtlLruCacheTest {
+
+    private final AtomicLong now = new AtomicLong(1_000);
+
+    @Test
+    public void get_countsHitsAndMisses() {
+        TtlLruCache<String, String> cache = new TtlLruCache<>(4, 100, now::get);
+        cache.put("a", "1");
+
+        assertEquals("1", cache.get("a"));
+        assertNull(cache.get("b"));
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+    }
+
+    @Test
+    public void put_evictsLeastRecentlyUsed() {
+        TtlLruCache<String, String> cache = new TtlLruCache<>(2, 100, now::get);
+        cache.put("a", "1");
+        cache.put("b", "2");
+        cache.get("a");
+
+        cache.put("c", "3");
+
+        assertNull(cache.get("b"));
+        assertEquals("1", cache.get("a"));
+        assertEquals("3", cache.get("c"));
+        assertEquals(1, cache.getEvictions());
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    public void get_expiresAfterTtl() {
+        TtlLruCache<String, String> cache = new TtlLruCache<>(4, 100, now::get);
+        cache.put("a", "1");
+        now.addAndGet(99);
+        assertEquals("1", cache.get("a"));
+
+        now.addAndGet(1);
+        assertNull(cache.get("a"));
+        assertEquals(1, cache.getExpirations());
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void put_keepsOriginalStoredAt() {
+        TtlLruCache<String, String> cache = new TtlLruCache<>(4, 100, now::get);
+        cache.put("viejo", "1", now.get() - 90);
+        cache.put("vencido", "2", now.get() - 100);
+
+        assertNull(cache.get("vencido"));
+        now.addAndGet(10);
+        assertNull(cache.get("viejo"));
+    }
+}
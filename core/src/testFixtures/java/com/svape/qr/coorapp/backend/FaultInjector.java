@@ -0,0 +1,78 @@
+package com.svape.qr.coorapp.backend;
+
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Latencia y fallas simuladas por viaje de red. Con la misma semilla, la misma secuencia de
+ * llamadas falla en los mismos puntos.
+ */
+public final class FaultInjector {
+    private final Random random;
+    private final AtomicLong roundTrips = new AtomicLong();
+    private volatile long latencyMillis;
+    private volatile double failureRate;
+    private int failNext;
+    private int failAfter = -1;
+
+    public FaultInjector(long seed) {
+        this.random = new Random(seed);
+    }
+
+    public FaultInjector setLatencyMillis(long latencyMillis) {
+        this.latencyMillis = latencyMillis;
+        return this;
+    }
+
+    // Probabilidad de que cada viaje falle, entre 0 y 1.
+    public FaultInjector setFailureRate(double failureRate) {
+        this.failureRate = failureRate;
+        return this;
+    }
+
+    // Los próximos calls viajes fallan sin importar failureRate.
+    public synchronized FaultInjector failNext(int calls) {
+        this.failNext = calls;
+        return this;
+    }
+
+    // Los próximos calls viajes funcionan y el siguiente falla: simula un corte a mitad de camino.
+    public synchronized FaultInjector failAfter(int calls) {
+        this.failAfter = calls;
+        return this;
+    }
+
+    public long getRoundTrips() {
+        return roundTrips.get();
+    }
+
+    public void reset() {
+        roundTrips.set(0);
+    }
+
+    // Se llama al inicio de cada viaje, antes de tocar el estado remoto.
+    void roundTrip() throws BackendException {
+        roundTrips.incrementAndGet();
+        if (latencyMillis > 0) {
+            try {
+                Thread.sleep(latencyMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new BackendException("Llamada interrumpida", e);
+            }
+        }
+
+        synchronized (this) {
+            if (failAfter >= 0 && failAfter-- == 0) {
+                throw new BackendException("Falla inyectada");
+            }
+            if (failNext > 0) {
+                failNext--;
+                throw new BackendException("Falla inyectada");
+            }
+            if (failureRate > 0 && random.nextDouble() < failureRate) {
+                throw new BackendException("Falla inyectada");
+            }
+        }
+    }
+}
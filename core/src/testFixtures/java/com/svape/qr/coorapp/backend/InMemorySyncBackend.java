@@ -0,0 +1,219 @@
+package com.svape.qr.coorapp.backend;
+
+import com.svape.qr.coorapp.model.BackupItem;
+import com.svape.qr.coorapp.sync.BackupItemCodec;
+import com.svape.qr.coorapp.util.Batches;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Doble en memoria del layout de Firestore: un documento padre con metadatos y un documento
+ * por etiqueta, guardado ya codificado con {@link BackupItemCodec}. Cuenta viajes de red y
+ * lecturas, escrituras y borrados de documentos con las mismas reglas de cobro (una consulta
+ * vacía cuesta una lectura) y parte las escrituras en lotes de {@link #MAX_BATCH_OPS}.
+ */
+public class InMemorySyncBackend implements SyncBackend {
+    public static final int MAX_BATCH_OPS = 500;
+
+    private final Map<String, Backup> backups = new HashMap<>();
+    private final FaultInjector faults;
+    private long documentReads;
+    private long documentWrites;
+    private long documentDeletes;
+
+    public InMemorySyncBackend() {
+        this(new FaultInjector(0));
+    }
+
+    public InMemorySyncBackend(FaultInjector faults) {
+        this.faults = faults;
+    }
+
+    public FaultInjector faults() {
+        return faults;
+    }
+
+    public synchronized long getDocumentReads() {
+        return documentReads;
+    }
+
+    public synchronized long getDocumentWrites() {
+        return documentWrites;
+    }
+
+    public synchronized long getDocumentDeletes() {
+        return documentDeletes;
+    }
+
+    public synchronized void resetCounters() {
+        documentReads = 0;
+        documentWrites = 0;
+        documentDeletes = 0;
+        faults.reset();
+    }
+
+    // Carga directa, sin viajes ni contadores, para preparar escenarios.
+    public synchronized void seed(String username, List<BackupItem> items, long version, String contentHash) {
+        Backup backup = backup(username);
+        for (BackupItem item : items) {
+            backup.documents.put(BackupItemCodec.documentIdFor(item.getEtiqueta1d()), BackupItemCodec.toMap(item));
+        }
+        backup.version = version;
+        backup.contentHash = contentHash;
+        backup.itemCount = contentHash != null ? items.size() : 0;
+    }
+
+    // Contenido actual decodificado, lápidas incluidas, en orden de id de documento.
+    public synchronized List<BackupItem> items(String username) {
+        List<BackupItem> items = new ArrayList<>();
+        Backup backup = backups.get(username);
+        if (backup != null) {
+            for (Map<String, Object> document : backup.documents.values()) {
+                items.add(BackupItemCodec.fromMap(document));
+            }
+        }
+        return items;
+    }
+
+    @Override
+    public RemoteMetadata fetchMetadata(String username) throws BackendException {
+        faults.roundTrip();
+        synchronized (this) {
+            documentReads++;
+            Backup backup = backups.get(username);
+            if (backup == null) {
+                return RemoteMetadata.EMPTY;
+            }
+            return new RemoteMetadata(backup.version, backup.contentHash, backup.itemCount);
+        }
+    }
+
+    @Override
+    public RemotePage fetchPage(String username, String afterId, int limit) throws BackendException {
+        faults.roundTrip();
+        synchronized (this) {
+            List<BackupItem> items = new ArrayList<>();
+            String lastId = null;
+            Backup backup = backups.get(username);
+            if (backup != null) {
+                Map<String, Map<String, Object>> tail = afterId != null
+                        ? backup.documents.tailMap(afterId, false) : backup.documents;
+                for (Map.Entry<String, Map<String, Object>> entry : tail.entrySet()) {
+                    if (items.size() == limit) {
+                        break;
+                    }
+                    items.add(BackupItemCodec.fromMap(entry.getValue()));
+                    lastId = entry.getKey();
+                }
+            }
+            documentReads += Math.max(1, items.size());
+            return new RemotePage(items, lastId, items.size());
+        }
+    }
+
+    @Override
+    public void putItems(String username, List<BackupItem> items, String date, String deviceId)
+            throws BackendException {
+        // Cada lote también escribe los metadatos del documento padre y retira la huella.
+        for (List<BackupItem> chunk : Batches.partition(items, MAX_BATCH_OPS - 1)) {
+            faults.roundTrip();
+            synchronized (this) {
+                Backup backup = backup(username);
+                backup.contentHash = null;
+                for (BackupItem item : chunk) {
+                    backup.documents.put(BackupItemCodec.documentIdFor(item.getEtiqueta1d()),
+                            BackupItemCodec.toMap(item));
+                }
+                documentWrites += chunk.size() + 1;
+            }
+        }
+    }
+
+    @Override
+    public long publishMetadata(String username, long expectedVersion, String contentHash, int itemCount)
+            throws BackendException {
+        faults.roundTrip();
+        synchronized (this) {
+            Backup backup = backup(username);
+            boolean wasInSync = backup.version == expectedVersion;
+            backup.version++;
+            backup.contentHash = wasInSync ? contentHash : null;
+            backup.itemCount = wasInSync ? itemCount : 0;
+            documentReads++;
+            documentWrites++;
+            return wasInSync ? backup.version : -1;
+        }
+    }
+
+    @Override
+    public int purgeTombstones(String username, long cutoff) throws BackendException {
+        faults.roundTrip();
+        List<String> expired = new ArrayList<>();
+        synchronized (this) {
+            Backup backup = backups.get(username);
+            if (backup != null) {
+                for (Map.Entry<String, Map<String, Object>> entry : backup.documents.entrySet()) {
+                    Object deletedAt = entry.getValue().get(BackupItemCodec.FIELD_DELETED_AT);
+                    if (deletedAt instanceof Number && ((Number) deletedAt).longValue() < cutoff) {
+                        expired.add(entry.getKey());
+                    }
+                }
+            }
+            documentReads += Math.max(1, expired.size());
+        }
+        deleteDocuments(username, expired);
+        return expired.size();
+    }
+
+    @Override
+    public void deleteBackup(String username) throws BackendException {
+        faults.roundTrip();
+        List<String> ids;
+        synchronized (this) {
+            Backup backup = backups.get(username);
+            ids = backup != null ? new ArrayList<>(backup.documents.keySet()) : new ArrayList<>();
+            documentReads += Math.max(1, ids.size());
+        }
+        deleteDocuments(username, ids);
+
+        faults.roundTrip();
+        synchronized (this) {
+            backups.remove(username);
+            documentDeletes++;
+        }
+    }
+
+    private void deleteDocuments(String username, List<String> ids) throws BackendException {
+        for (List<String> chunk : Batches.partition(ids, MAX_BATCH_OPS)) {
+            faults.roundTrip();
+            synchronized (this) {
+                Backup backup = backups.get(username);
+                if (backup != null) {
+                    for (String id : chunk) {
+                        backup.documents.remove(id);
+                    }
+                }
+                documentDeletes += chunk.size();
+            }
+        }
+    }
+
+    private Backup backup(String username) {
+        Backup backup = backups.get(username);
+        if (backup == null) {
+            backup = new Backup();
+            backups.put(username, backup);
+        }
+        return backup;
+    }
+
+    private static final class Backup {
+        final TreeMap<String, Map<String, Object>> documents = new TreeMap<>();
+        long version;
+        String contentHash;
+        int itemCount;
+    }
+}
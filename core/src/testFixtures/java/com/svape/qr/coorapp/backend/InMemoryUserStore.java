@@ -0,0 +1,46 @@
+package com.svape.qr.coorapp.backend;
+
+import java.util.HashMap;
+import java.util.Map;
+
+// Doble en memoria de la colección Usuarios.
+public class InMemoryUserStore implements UserStore {
+    private final Map<String, String> passwords = new HashMap<>();
+    private final FaultInjector faults;
+
+    public InMemoryUserStore() {
+        this(new FaultInjector(0));
+    }
+
+    public InMemoryUserStore(FaultInjector faults) {
+        this.faults = faults;
+    }
+
+    public FaultInjector faults() {
+        return faults;
+    }
+
+    @Override
+    public boolean validateUser(String username, String password) throws BackendException {
+        faults.roundTrip();
+        synchronized (this) {
+            return password != null && password.equals(passwords.get(username));
+        }
+    }
+
+    @Override
+    public boolean usernameExists(String username) throws BackendException {
+        faults.roundTrip();
+        synchronized (this) {
+            return passwords.containsKey(username);
+        }
+    }
+
+    @Override
+    public void registerUser(String username, String password) throws BackendException {
+        faults.roundTrip();
+        synchronized (this) {
+            passwords.put(username, password);
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package com.svape.qr.coorapp.sync;
+
+import com.svape.qr.coorapp.model.BackupItem;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Doble en memoria de la tabla backup_local y de sync_state con la misma semántica que Room:
+ * una fila por (usuario, etiqueta), REPLACE borra la fila en conflicto y las filas nuevas
+ * reciben id autoincremental.
+ */
+public class InMemoryLocalStore implements LocalStore {
+    private final Map<Long, Row> rows = new LinkedHashMap<>();
+    private final Map<String, Row> byTag = new HashMap<>();
+    private final Map<String, SyncState> states = new HashMap<>();
+    private long nextId = 1;
+
+    // Equivalente al upsert de un escaneo o una edición local.
+    public synchronized BackupItem save(String username, BackupItem item, boolean dirty) {
+        Row row = insert(username, item);
+        row.dirty = dirty;
+        return copy(row.item);
+    }
+
+    public synchronized List<BackupItem> liveItems(String username) {
+        List<BackupItem> items = new ArrayList<>();
+        for (Row row : rows.values()) {
+            if (row.username.equals(username) && !row.item.isDeleted()) {
+                items.add(copy(row.item));
+            }
+        }
+        return items;
+    }
+
+    public synchronized int size() {
+        return rows.size();
+    }
+
+    @Override
+    public synchronized void runInTransaction(String username, Runnable body) {
+        body.run();
+    }
+
+    @Override
+    public synchronized List<BackupItem> findByEtiquetas(String username, List<String> etiquetas) {
+        List<BackupItem> items = new ArrayList<>();
+        for (String etiqueta : etiquetas) {
+            Row row = byTag.get(key(username, etiqueta));
+            if (row != null) {
+                items.add(copy(row.item));
+            }
+        }
+        return items;
+    }
+
+    @Override
+    public synchronized void replaceAll(String username, List<BackupItem> items, long syncedAt) {
+        for (BackupItem item : items) {
+            Row row = insert(username, item);
+            row.dirty = false;
+            row.syncedAt = syncedAt;
+        }
+    }
+
+    @Override
+    public synchronized void markDirty(String username, List<Long> ids) {
+        for (Long id : ids) {
+            Row row = rows.get(id);
+            if (row != null) {
+                row.dirty = true;
+            }
+        }
+    }
+
+    @Override
+    public synchronized List<BackupItem> getDirty(String username) {
+        List<BackupItem> items = new ArrayList<>();
+        for (Row row : rows.values()) {
+            if (row.dirty && row.username.equals(username)) {
+                items.add(copy(row.item));
+            }
+        }
+        return items;
+    }
+
+    @Override
+    public synchronized int markSynced(String username, List<BackupItem> items, long syncedAt) {
+        int updated = 0;
+        for (BackupItem item : items) {
+            Row row = rows.get(item.getId());
+            if (row != null && row.item.getUpdatedAt() == item.getUpdatedAt()) {
+                row.dirty = false;
+                row.syncedAt = syncedAt;
+                updated++;
+            }
+        }
+        return updated;
+    }
+
+    @Override
+    public synchronized int purgeTombstones(String username, long cutoff) {
+        List<Row> expired = new ArrayList<>();
+        for (Row row : rows.values()) {
+            if (row.username.equals(username) && row.item.isDeleted() && !row.dirty
+                    && row.item.getUpdatedAt() < cutoff) {
+                expired.add(row);
+            }
+        }
+        for (Row row : expired) {
+            remove(row);
+        }
+        return expired.size();
+    }
+
+    @Override
+    public synchronized ContentHash contentHash(String username) {
+        ContentHash hash = new ContentHash();
+        for (Row row : rows.values()) {
+            if (row.username.equals(username) && !row.item.isDeleted()) {
+                hash.add(row.item);
+            }
+        }
+        return hash;
+    }
+
+    @Override
+    public synchronized SyncState getSyncState(String username) {
+        return states.get(username);
+    }
+
+    @Override
+    public synchronized void saveSyncState(SyncState state) {
+        states.put(state.getUsername(), state);
+    }
+
+    @Override
+    public synchronized void deleteSyncState(String username) {
+        states.remove(username);
+    }
+
+    private Row insert(String username, BackupItem item) {
+        Row byId = item.getId() != 0 ? rows.get(item.getId()) : null;
+        if (byId != null) {
+            remove(byId);
+        }
+        Row sameTag = byTag.get(key(username, item.getEtiqueta1d()));
+        if (sameTag != null) {
+            remove(sameTag);
+        }
+
+        BackupItem stored = copy(item);
+        if (stored.getId() == 0) {
+            stored.setId(nextId++);
+        } else {
+            nextId = Math.max(nextId, stored.getId() + 1);
+        }
+        Row row = new Row(username, stored);
+        rows.put(stored.getId(), row);
+        byTag.put(key(username, stored.getEtiqueta1d()), row);
+        return row;
+    }
+
+    private void remove(Row row) {
+        rows.remove(row.item.getId());
+        byTag.remove(key(row.username, row.item.getEtiqueta1d()));
+    }
+
+    private static String key(String username, String etiqueta) {
+        return username + '\u0000' + etiqueta;
+    }
+
+    private static BackupItem copy(BackupItem item) {
+        BackupItem copy = new BackupItem(item.getEtiqueta1d(), item.getLatitud(), item.getLongitud(),
+                item.getObservacion());
+        copy.setId(item.getId());
+        copy.setUpdatedAt(item.getUpdatedAt());
+        copy.setDeviceId(item.getDeviceId());
+        copy.setDeleted(item.isDeleted());
+        return copy;
+    }
+
+    private static final class Row {
+        final String username;
+        final BackupItem item;
+        boolean dirty;
+        long syncedAt;
+
+        Row(String username, BackupItem item) {
+            this.username = username;
+            this.item = item;
+        }
+    }
+}
@@ -33,4 +33,6 @@ dependencyResolutionManagement {
 }
 
 rootProject.name = "CoorApp"
-include(":app")
\ No newline at end of file
+include(":app")
+include(":core")
+include(":benchmark")
\ No newline at end of file